@@ -0,0 +1,14 @@
+USE financial_control;
+
+-- Table-backed id generator for UserEntity (pooled-lo, blocks of 50). next_val is the
+-- first id of the next block, so it must start above every id already in users.
+CREATE TABLE IF NOT EXISTS users_id_seq (
+    next_val BIGINT
+);
+
+INSERT INTO users_id_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1 FROM users
+WHERE NOT EXISTS (SELECT 1 FROM users_id_seq);
+
+-- UserRepositoryAdapter maps duplicate emails by this constraint name.
+ALTER TABLE users RENAME INDEX email TO uk_users_email;
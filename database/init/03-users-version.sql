@@ -0,0 +1,5 @@
+USE financial_control;
+
+-- Optimistic locking column for UserEntity; PUT /api/users/{id} only updates when the
+-- client's version (if sent) still matches, and bumps it on every update.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+USE financial_control;
+
+-- Shared token buckets for rate-limit.store=jdbc. One row per client key and policy;
+-- JdbcRateLimitBucketStore updates a row only while its version still matches.
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    key_high BIGINT NOT NULL,
+    key_low BIGINT NOT NULL,
+    policy_id INT NOT NULL,
+    minute_window_start BIGINT NOT NULL,
+    minute_tokens BIGINT NOT NULL,
+    hour_window_start BIGINT NOT NULL,
+    hour_tokens BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (key_high, key_low, policy_id)
+);
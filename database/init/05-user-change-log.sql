@@ -0,0 +1,12 @@
+USE financial_control;
+
+-- Appended in the same transaction as every user write; UserCacheInvalidator on each
+-- node polls it by id to evict users changed elsewhere, and purges rows older than
+-- user-cache.change-log-retention-minutes.
+CREATE TABLE IF NOT EXISTS user_change_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    email VARCHAR(255),
+    changed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,9 @@
+USE financial_control;
+
+-- Single-row heartbeat written on the primary by ReplicaLagMonitor; reading it back
+-- through the replica gives the replication lag used to route read-only transactions.
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INT NOT NULL,
+    beat_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,70 @@
+package com.gisiona.demodevinia.domain.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link User} construction, which validates name and email, next to the
+ * unvalidated {@link User#rehydrate} path, the email check alone and the
+ * {@code String.matches} regex it replaced. Run with {@code -prof gc} to get the
+ * allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserConstructionBenchmark {
+
+    private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
+    private static final int EMAILS = 1024;
+
+    String[] emails;
+    LocalDateTime now;
+    int position;
+
+    @Setup
+    public void setUp() {
+        emails = new String[EMAILS];
+        for (int i = 0; i < EMAILS; i++) {
+            emails[i] = "usuario." + i + "@empresa" + (i % 17) + ".com.br";
+        }
+        now = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public User construct() {
+        return new User(1L, "João Silva", next(), now, now);
+    }
+
+    @Benchmark
+    public User rehydrate() {
+        return User.rehydrate(1L, "João Silva", next(), now, now, 0L);
+    }
+
+    @Benchmark
+    public boolean validateEmail() {
+        return EmailValidator.isValid(next());
+    }
+
+    @Benchmark
+    public boolean validateEmailWithRegex() {
+        return next().matches(EMAIL_REGEX);
+    }
+
+    private String next() {
+        return emails[position++ & (EMAILS - 1)];
+    }
+}
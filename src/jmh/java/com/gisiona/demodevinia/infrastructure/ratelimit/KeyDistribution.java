@@ -0,0 +1,65 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Client key access patterns used by the rate limiter benchmarks. Sequences are sampled
+ * up front so the measured loop only indexes an array.
+ */
+public enum KeyDistribution {
+
+    /** Every request comes from the same client. */
+    HOT,
+
+    /** Requests are spread evenly over all clients. */
+    UNIFORM,
+
+    /** A few clients send most requests (Zipf, exponent 1). */
+    ZIPF;
+
+    static final int KEYS = 100_000;
+    static final int SEQUENCE_LENGTH = 1 << 16;
+
+    public int[] sample(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] sequence = new int[SEQUENCE_LENGTH];
+        switch (this) {
+            case HOT -> Arrays.fill(sequence, 0);
+            case UNIFORM -> {
+                for (int i = 0; i < sequence.length; i++) {
+                    sequence[i] = random.nextInt(KEYS);
+                }
+            }
+            case ZIPF -> {
+                double[] cumulative = zipfCumulative(KEYS, 1.0);
+                for (int i = 0; i < sequence.length; i++) {
+                    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+                    sequence[i] = Math.min(KEYS - 1, index < 0 ? -index - 1 : index);
+                }
+            }
+        }
+        return sequence;
+    }
+
+    public static ClientKey[] keys() {
+        ClientKey[] keys = new ClientKey[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = ClientKey.ofIpv4(0x0A000000L + i);
+        }
+        return keys;
+    }
+
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+}
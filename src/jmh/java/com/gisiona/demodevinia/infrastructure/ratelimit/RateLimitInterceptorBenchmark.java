@@ -0,0 +1,106 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link RateLimitInterceptor#preHandle} end to end: key resolution from
+ * the remote address, policy lookup, bucket consumption and the response headers (or the
+ * 429 body once a client runs out of tokens). Requests are built once per key and reused.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitInterceptorBenchmark {
+
+    @Param({"HOT", "UNIFORM", "ZIPF"})
+    public KeyDistribution distribution;
+
+    @Param({"20", "1000000"})
+    public int requestsPerMinute;
+
+    RateLimitInterceptor interceptor;
+    MockHttpServletRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerMinute(requestsPerMinute);
+        properties.setRequestsPerHour(requestsPerMinute * 60);
+        RateLimitPolicyResolver policyResolver = new RateLimitPolicyResolver(properties);
+        RateLimitService service = new RateLimitService(
+                new BucketSlab(properties.getCacheSize(), Duration.ofMinutes(properties.getCacheExpireMinutes())),
+                policyResolver);
+        interceptor = new RateLimitInterceptor(service, new ClientKeyResolver(),
+                policyResolver, new RateLimitCostResolver(),
+                new RateLimitRejectionLog(properties));
+
+        ClientKey[] keys = KeyDistribution.keys();
+        requests = new MockHttpServletRequest[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            requests[i] = new MockHttpServletRequest("GET", "/api/users/1");
+            requests[i].setRemoteAddr(keys[i].toString());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int[] sequence;
+        int position;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(RateLimitInterceptorBenchmark benchmark) {
+            sequence = benchmark.distribution.sample(Thread.currentThread().getId());
+            response = new MockHttpServletResponse();
+        }
+
+        int next() {
+            int index = sequence[position];
+            position = (position + 1) & (sequence.length - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean preHandle1Thread(Cursor cursor) throws Exception {
+        return preHandle(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean preHandle8Threads(Cursor cursor) throws Exception {
+        return preHandle(cursor);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean preHandle64Threads(Cursor cursor) throws Exception {
+        return preHandle(cursor);
+    }
+
+    private boolean preHandle(Cursor cursor) throws Exception {
+        cursor.response.reset();
+        return interceptor.preHandle(requests[cursor.next()], cursor.response, null);
+    }
+}
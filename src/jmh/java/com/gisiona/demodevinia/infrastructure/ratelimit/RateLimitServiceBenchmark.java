@@ -0,0 +1,86 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link RateLimitService#tryConsume(ClientKey)} with the local bucket
+ * slab. Run with {@code -prof gc} to get the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitServiceBenchmark {
+
+    @Param({"HOT", "UNIFORM", "ZIPF"})
+    public KeyDistribution distribution;
+
+    @Param({"20", "1000000"})
+    public int requestsPerMinute;
+
+    RateLimitService service;
+    ClientKey[] keys;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerMinute(requestsPerMinute);
+        properties.setRequestsPerHour(requestsPerMinute * 60);
+        service = new RateLimitService(
+                new BucketSlab(properties.getCacheSize(), Duration.ofMinutes(properties.getCacheExpireMinutes())),
+                new RateLimitPolicyResolver(properties));
+        keys = KeyDistribution.keys();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int[] sequence;
+        int position;
+
+        @Setup
+        public void setUp(RateLimitServiceBenchmark benchmark) {
+            sequence = benchmark.distribution.sample(Thread.currentThread().getId());
+        }
+
+        int next() {
+            int index = sequence[position];
+            position = (position + 1) & (sequence.length - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean tryConsume1Thread(Cursor cursor) {
+        return service.tryConsume(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean tryConsume8Threads(Cursor cursor) {
+        return service.tryConsume(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean tryConsume64Threads(Cursor cursor) {
+        return service.tryConsume(keys[cursor.next()]);
+    }
+}
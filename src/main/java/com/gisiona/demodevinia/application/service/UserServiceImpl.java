@@ -1,70 +1,156 @@
 package com.gisiona.demodevinia.application.service;
 
+import com.gisiona.demodevinia.domain.exception.DuplicateEmailException;
+import com.gisiona.demodevinia.domain.model.NewUser;
 import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserCreationResult;
+import com.gisiona.demodevinia.domain.model.UserView;
+import com.gisiona.demodevinia.domain.port.UserQueryPort;
 import com.gisiona.demodevinia.domain.port.UserRepository;
 import com.gisiona.demodevinia.domain.port.UserService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_INSERT_ATTEMPTS = 3;
+
     private final UserRepository userRepository;
+    private final UserQueryPort userQueryPort;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserQueryPort userQueryPort) {
         this.userRepository = userRepository;
+        this.userQueryPort = userQueryPort;
     }
 
     @Override
     public User createUser(String name, String email) {
-        if (userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("Email já está em uso: " + email);
-        }
-        
         User user = User.create(name, email);
         return userRepository.save(user);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<UserCreationResult> createUsers(List<NewUser> newUsers) {
+        if (newUsers == null || newUsers.isEmpty() || newUsers.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Lote deve ter entre 1 e " + MAX_BATCH_SIZE + " usuários");
+        }
+
+        UserCreationResult[] results = new UserCreationResult[newUsers.size()];
+        User[] candidates = new User[newUsers.size()];
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < newUsers.size(); i++) {
+            NewUser newUser = newUsers.get(i);
+            try {
+                candidates[i] = User.create(newUser.getName(), newUser.getEmail());
+            } catch (IllegalArgumentException e) {
+                results[i] = UserCreationResult.invalid(e.getMessage());
+                continue;
+            }
+            if (!emails.add(candidates[i].getEmail())) {
+                results[i] = UserCreationResult.duplicateEmail("Email repetido no lote: " + candidates[i].getEmail());
+                candidates[i] = null;
+            }
+        }
+
+        // The pre-insert check can miss emails created on another node, so the constraint
+        // decides. Each attempt commits or rolls back on its own (no surrounding
+        // transaction), and a rejected batch is checked again without the taken emails.
+        List<User> saved;
+        for (int attempt = 1; ; attempt++) {
+            List<User> toInsert = excludeExistingEmails(candidates, results);
+            try {
+                saved = toInsert.isEmpty() ? List.of() : userRepository.saveAll(toInsert);
+                break;
+            } catch (DuplicateEmailException e) {
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+
+        int next = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i] != null) {
+                results[i] = UserCreationResult.created(saved.get(next++));
+            }
+        }
+        return List.of(results);
+    }
+
+    private List<User> excludeExistingEmails(User[] candidates, UserCreationResult[] results) {
+        Set<String> emails = new HashSet<>();
+        for (User candidate : candidates) {
+            if (candidate != null) {
+                emails.add(candidate.getEmail());
+            }
+        }
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(emails));
+        List<User> toInsert = new ArrayList<>();
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i] == null) {
+                continue;
+            }
+            if (existingEmails.contains(candidates[i].getEmail())) {
+                results[i] = UserCreationResult.duplicateEmail("Email já está em uso: " + candidates[i].getEmail());
+                candidates[i] = null;
+            } else {
+                toInsert.add(candidates[i]);
+            }
+        }
+        return toInsert;
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public User getUserById(Long id) {
-        return userRepository.findById(id)
+    public UserView getUserById(Long id) {
+        return userQueryPort.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+    public UserView getUserByEmail(String email) {
+        return userQueryPort.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com email: " + email));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserView> getUsers(Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        return userQueryPort.findPage(afterId, limit);
     }
 
     @Override
-    public User updateUser(Long id, String name, String email) {
-        User existingUser = getUserById(id);
-        
-        if (!existingUser.getEmail().equals(email) && userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("Email já está em uso: " + email);
-        }
-        
-        User updatedUser = existingUser.update(name, email);
-        return userRepository.save(updatedUser);
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserView> action) {
+        userQueryPort.forEach(action);
+    }
+
+    @Override
+    public User updateUser(Long id, String name, String email, Long expectedVersion) {
+        return userRepository.update(User.forUpdate(id, name, email, expectedVersion))
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
     }
 
     @Override
     public void deleteUser(Long id) {
-        if (!userRepository.findById(id).isPresent()) {
+        if (userRepository.deleteByIdReturningCount(id) == 0) {
             throw new IllegalArgumentException("Usuário não encontrado com ID: " + id);
         }
-        userRepository.deleteById(id);
     }
 }
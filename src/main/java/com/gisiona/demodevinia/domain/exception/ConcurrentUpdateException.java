@@ -0,0 +1,8 @@
+package com.gisiona.demodevinia.domain.exception;
+
+public class ConcurrentUpdateException extends IllegalStateException {
+
+    public ConcurrentUpdateException(Long id) {
+        super("Usuário foi alterado por outra requisição: " + id);
+    }
+}
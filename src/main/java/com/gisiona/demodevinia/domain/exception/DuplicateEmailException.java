@@ -0,0 +1,8 @@
+package com.gisiona.demodevinia.domain.exception;
+
+public class DuplicateEmailException extends IllegalArgumentException {
+
+    public DuplicateEmailException(String email) {
+        super(email != null ? "Email já está em uso: " + email : "Email já está em uso");
+    }
+}
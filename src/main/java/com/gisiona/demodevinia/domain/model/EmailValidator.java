@@ -0,0 +1,58 @@
+package com.gisiona.demodevinia.domain.model;
+
+/**
+ * Accepts exactly what {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$} matches,
+ * without compiling a pattern or allocating: one '@', a non-empty local part of
+ * letters, digits and {@code + _ . -}, and a domain of letters, digits, '.' and '-'
+ * whose last label has at least two letters and is preceded by at least one character.
+ */
+final class EmailValidator {
+
+    private EmailValidator() {
+    }
+
+    static boolean isValid(String email) {
+        int length = email.length();
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0 ? !isLocalChar(c) : !isDomainChar(c)) {
+                return false;
+            }
+        }
+        if (at <= 0) {
+            return false;
+        }
+        int lastDot = email.lastIndexOf('.');
+        if (lastDot < at + 2 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,15 @@
+package com.gisiona.demodevinia.domain.model;
+
+public class NewUser {
+
+    private final String name;
+    private final String email;
+
+    public NewUser(String name, String email) {
+        this.name = name;
+        this.email = email;
+    }
+
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+}
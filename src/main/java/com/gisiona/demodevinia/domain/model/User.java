@@ -3,20 +3,31 @@ package com.gisiona.demodevinia.domain.model;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
-public class User {
+public class User implements UserView {
     
     private final Long id;
     private final String name;
     private final String email;
     private final LocalDateTime createdAt;
     private final LocalDateTime updatedAt;
+    private final Long version;
 
     public User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, email, createdAt, updatedAt, null);
+    }
+
+    public User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, name, email, createdAt, updatedAt, version, true);
+    }
+
+    private User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Long version,
+                 boolean validate) {
         this.id = id;
-        this.name = validateName(name);
-        this.email = validateEmail(email);
+        this.name = validate ? validateName(name) : name;
+        this.email = validate ? validateEmail(email) : email;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     public static User create(String name, String email) {
@@ -24,12 +35,29 @@ public class User {
         return new User(null, name, email, now, now);
     }
 
+    /**
+     * New name and email for an existing user, to be applied without loading it first.
+     * A non-null {@code version} is the version the caller last saw.
+     */
+    public static User forUpdate(Long id, String name, String email, Long version) {
+        return new User(id, name, email, null, LocalDateTime.now(), version);
+    }
+
+    /**
+     * Rebuilds a user from persisted data without validating it again. Only for rows that
+     * went through {@link #create} or {@link #update} on the way in.
+     */
+    public static User rehydrate(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                 Long version) {
+        return new User(id, name, email, createdAt, updatedAt, version, false);
+    }
+
     public User update(String name, String email) {
-        return new User(this.id, name, email, this.createdAt, LocalDateTime.now());
+        return new User(this.id, name, email, this.createdAt, LocalDateTime.now(), this.version);
     }
 
     public User withId(Long id) {
-        return new User(id, this.name, this.email, this.createdAt, this.updatedAt);
+        return new User(id, this.name, this.email, this.createdAt, this.updatedAt, this.version);
     }
 
     private String validateName(String name) {
@@ -47,7 +75,7 @@ public class User {
             throw new IllegalArgumentException("Email não pode ser vazio");
         }
         String trimmedEmail = email.trim().toLowerCase();
-        if (!trimmedEmail.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+        if (!EmailValidator.isValid(trimmedEmail)) {
             throw new IllegalArgumentException("Email deve ter formato válido");
         }
         return trimmedEmail;
@@ -58,6 +86,7 @@ public class User {
     public String getEmail() { return email; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public Long getVersion() { return version; }
 
     @Override
     public boolean equals(Object o) {
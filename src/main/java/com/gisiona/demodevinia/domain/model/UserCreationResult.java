@@ -0,0 +1,36 @@
+package com.gisiona.demodevinia.domain.model;
+
+public class UserCreationResult {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE_EMAIL,
+        INVALID
+    }
+
+    private final Status status;
+    private final User user;
+    private final String message;
+
+    private UserCreationResult(Status status, User user, String message) {
+        this.status = status;
+        this.user = user;
+        this.message = message;
+    }
+
+    public static UserCreationResult created(User user) {
+        return new UserCreationResult(Status.CREATED, user, null);
+    }
+
+    public static UserCreationResult duplicateEmail(String message) {
+        return new UserCreationResult(Status.DUPLICATE_EMAIL, null, message);
+    }
+
+    public static UserCreationResult invalid(String message) {
+        return new UserCreationResult(Status.INVALID, null, message);
+    }
+
+    public Status getStatus() { return status; }
+    public User getUser() { return user; }
+    public String getMessage() { return message; }
+}
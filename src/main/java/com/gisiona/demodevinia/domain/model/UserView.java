@@ -0,0 +1,23 @@
+package com.gisiona.demodevinia.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a user, as returned by queries. Read paths hand these straight to the
+ * web layer, so query adapters can return their own flat rows instead of building a
+ * {@link User} for each one.
+ */
+public interface UserView {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+}
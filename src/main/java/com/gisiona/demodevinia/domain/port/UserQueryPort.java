@@ -0,0 +1,23 @@
+package com.gisiona.demodevinia.domain.port;
+
+import com.gisiona.demodevinia.domain.model.UserView;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read side of the user store. Implementations return flat views rather than domain
+ * objects, so queries do not pay for entity tracking or validation and can be served
+ * from a different database than writes.
+ */
+public interface UserQueryPort {
+
+    Optional<UserView> findById(Long id);
+
+    Optional<UserView> findByEmail(String email);
+
+    List<UserView> findPage(Long afterId, int limit);
+
+    void forEach(Consumer<UserView> action);
+}
@@ -1,20 +1,22 @@
 package com.gisiona.demodevinia.domain.port;
 
 import com.gisiona.demodevinia.domain.model.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Write side of the user store. Lookups for display go through {@link UserQueryPort}.
+ */
 public interface UserRepository {
     
     User save(User user);
     
-    Optional<User> findById(Long id);
+    List<User> saveAll(List<User> users);
     
-    Optional<User> findByEmail(String email);
+    Optional<User> update(User user);
     
-    List<User> findAll();
+    int deleteByIdReturningCount(Long id);
     
-    void deleteById(Long id);
-    
-    boolean existsByEmail(String email);
+    List<String> findExistingEmails(Collection<String> emails);
 }
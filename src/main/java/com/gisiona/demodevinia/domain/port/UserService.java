@@ -1,19 +1,27 @@
 package com.gisiona.demodevinia.domain.port;
 
+import com.gisiona.demodevinia.domain.model.NewUser;
 import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserCreationResult;
+import com.gisiona.demodevinia.domain.model.UserView;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     
     User createUser(String name, String email);
     
-    User getUserById(Long id);
+    List<UserCreationResult> createUsers(List<NewUser> newUsers);
     
-    User getUserByEmail(String email);
+    UserView getUserById(Long id);
     
-    List<User> getAllUsers();
+    UserView getUserByEmail(String email);
     
-    User updateUser(Long id, String name, String email);
+    List<UserView> getUsers(Long afterId, int limit);
+    
+    void exportUsers(Consumer<UserView> action);
+    
+    User updateUser(Long id, String name, String email, Long expectedVersion);
     
     void deleteUser(Long id);
 }
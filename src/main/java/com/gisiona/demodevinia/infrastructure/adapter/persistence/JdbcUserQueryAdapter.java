@@ -0,0 +1,69 @@
+package com.gisiona.demodevinia.infrastructure.adapter.persistence;
+
+import com.gisiona.demodevinia.domain.model.UserView;
+import com.gisiona.demodevinia.domain.port.UserQueryPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * {@link UserQueryPort} on plain JDBC: rows are mapped straight to {@link UserRow}, with
+ * no persistence context, dirty checking or proxies. The export streams with a fetch
+ * size so the whole table is never held in memory.
+ */
+@Component
+public class JdbcUserQueryAdapter implements UserQueryPort {
+
+    private static final String SELECT_USERS = "SELECT id, name, email, created_at, updated_at, version FROM users";
+    private static final RowMapper<UserView> ROW_MAPPER = (rs, rowNum) -> toRow(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public JdbcUserQueryAdapter(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(UserJpaRepository.STREAM_FETCH_SIZE);
+    }
+
+    @Override
+    public Optional<UserView> findById(Long id) {
+        return jdbcTemplate.query(SELECT_USERS + " WHERE id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<UserView> findByEmail(String email) {
+        return jdbcTemplate.query(SELECT_USERS + " WHERE email = ?", ROW_MAPPER, email).stream().findFirst();
+    }
+
+    @Override
+    public List<UserView> findPage(Long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_USERS + " WHERE id > ? ORDER BY id LIMIT ?", ROW_MAPPER,
+                afterId == null ? 0L : afterId, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<UserView> action) {
+        streamingTemplate.query(SELECT_USERS + " ORDER BY id", (RowCallbackHandler) rs -> action.accept(toRow(rs)));
+    }
+
+    private static UserRow toRow(ResultSet rs) throws SQLException {
+        return new UserRow(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getObject(4, LocalDateTime.class),
+                rs.getObject(5, LocalDateTime.class),
+                rs.getLong(6)
+        );
+    }
+}
@@ -1,14 +1,31 @@
 package com.gisiona.demodevinia.infrastructure.adapter.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface UserJpaRepository extends JpaRepository<UserEntity, Long> {
+
+    int STREAM_FETCH_SIZE = 500;
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserEntity u set u.name = :name, u.email = :email, u.updatedAt = :updatedAt, "
+            + "u.version = u.version + 1 where u.id = :id and (:version is null or u.version = :version)")
+    int updateById(Long id, String name, String email, LocalDateTime updatedAt, Long version);
     
-    Optional<UserEntity> findByEmail(String email);
+    // Read-write so it always runs on the primary: it guards inserts.
+    @Transactional
+    @Query("select u.email from UserEntity u where u.email in :emails")
+    List<String> findEmailsIn(Collection<String> emails);
     
-    boolean existsByEmail(String email);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserEntity u where u.id = :id")
+    int deleteByIdReturningCount(Long id);
 }
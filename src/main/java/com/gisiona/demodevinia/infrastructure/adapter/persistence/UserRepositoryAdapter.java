@@ -1,12 +1,18 @@
 package com.gisiona.demodevinia.infrastructure.adapter.persistence;
 
+import com.gisiona.demodevinia.domain.exception.ConcurrentUpdateException;
+import com.gisiona.demodevinia.domain.exception.DuplicateEmailException;
 import com.gisiona.demodevinia.domain.model.User;
 import com.gisiona.demodevinia.domain.port.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Component
 public class UserRepositoryAdapter implements UserRepository {
@@ -20,38 +26,74 @@ public class UserRepositoryAdapter implements UserRepository {
     @Override
     public User save(User user) {
         UserEntity entity = toEntity(user);
-        UserEntity savedEntity = userJpaRepository.save(entity);
+        UserEntity savedEntity;
+        try {
+            savedEntity = userJpaRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, user.getEmail());
+        }
         return toDomain(savedEntity);
     }
 
     @Override
-    public Optional<User> findById(Long id) {
-        return userJpaRepository.findById(id)
-                .map(this::toDomain);
+    public List<User> saveAll(List<User> users) {
+        List<UserEntity> entities = new ArrayList<>(users.size());
+        for (User user : users) {
+            entities.add(toEntity(user));
+        }
+        List<UserEntity> savedEntities;
+        try {
+            savedEntities = userJpaRepository.saveAllAndFlush(entities);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, null);
+        }
+        List<User> saved = new ArrayList<>(savedEntities.size());
+        for (UserEntity entity : savedEntities) {
+            saved.add(toDomain(entity));
+        }
+        return saved;
     }
 
     @Override
-    public Optional<User> findByEmail(String email) {
-        return userJpaRepository.findByEmail(email)
-                .map(this::toDomain);
+    public Optional<User> update(User user) {
+        int updated;
+        try {
+            updated = userJpaRepository.updateById(user.getId(), user.getName(), user.getEmail(),
+                    user.getUpdatedAt(), user.getVersion());
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, user.getEmail());
+        }
+        if (updated == 0) {
+            if (user.getVersion() != null && userJpaRepository.existsById(user.getId())) {
+                throw new ConcurrentUpdateException(user.getId());
+            }
+            return Optional.empty();
+        }
+        return userJpaRepository.findById(user.getId()).map(this::toDomain);
     }
 
     @Override
-    public List<User> findAll() {
-        return userJpaRepository.findAll()
-                .stream()
-                .map(this::toDomain)
-                .collect(Collectors.toList());
+    public int deleteByIdReturningCount(Long id) {
+        return userJpaRepository.deleteByIdReturningCount(id);
     }
 
     @Override
-    public void deleteById(Long id) {
-        userJpaRepository.deleteById(id);
+    public List<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        return userJpaRepository.findEmailsIn(emails);
     }
 
-    @Override
-    public boolean existsByEmail(String email) {
-        return userJpaRepository.existsByEmail(email);
+    private static RuntimeException translate(DataIntegrityViolationException e, String email) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String constraint = cause instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName() : cause.getMessage();
+            if (constraint != null && constraint.toLowerCase(Locale.ROOT).contains(UserEntity.EMAIL_CONSTRAINT)) {
+                return new DuplicateEmailException(email);
+            }
+        }
+        return e;
     }
 
     private UserEntity toEntity(User user) {
@@ -64,16 +106,20 @@ public class UserRepositoryAdapter implements UserRepository {
         if (user.getId() != null) {
             entity.setId(user.getId());
         }
+        if (user.getVersion() != null) {
+            entity.setVersion(user.getVersion());
+        }
         return entity;
     }
 
     private User toDomain(UserEntity entity) {
-        return new User(
+        return User.rehydrate(
                 entity.getId(),
                 entity.getName(),
                 entity.getEmail(),
                 entity.getCreatedAt(),
-                entity.getUpdatedAt()
+                entity.getUpdatedAt(),
+                entity.getVersion()
         );
     }
 }
@@ -0,0 +1,46 @@
+package com.gisiona.demodevinia.infrastructure.adapter.persistence;
+
+import com.gisiona.demodevinia.domain.model.UserView;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@code users} row as read by {@link JdbcUserQueryAdapter}: plain fields, no managed
+ * {@link UserEntity} and no snapshot for dirty checking.
+ */
+public final class UserRow implements UserView {
+
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long version;
+
+    public UserRow(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    @Override
+    public Long getId() { return id; }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public String getEmail() { return email; }
+
+    @Override
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @Override
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    @Override
+    public Long getVersion() { return version; }
+}
@@ -1,29 +1,50 @@
 package com.gisiona.demodevinia.infrastructure.adapter.web;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gisiona.demodevinia.domain.model.NewUser;
 import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserCreationResult;
+import com.gisiona.demodevinia.domain.model.UserView;
 import com.gisiona.demodevinia.domain.port.UserService;
 import com.gisiona.demodevinia.infrastructure.adapter.web.dto.CreateUserRequest;
 import com.gisiona.demodevinia.infrastructure.adapter.web.dto.UpdateUserRequest;
+import com.gisiona.demodevinia.infrastructure.adapter.web.dto.UserCreationResponse;
 import com.gisiona.demodevinia.infrastructure.adapter.web.dto.UserResponse;
+import com.gisiona.demodevinia.infrastructure.ratelimit.RateLimitCost;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "Users", description = "API para gerenciamento de usuários")
 public class UserController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.exportWriter = objectMapper.writerFor(UserView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping
@@ -33,34 +54,86 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.from(user));
     }
 
+    // The interceptor charges before the body is read, so the item count is unknown there.
+    // A full batch of 500 goes out as 10 JDBC batches of 50, hence one token per batch at most.
+    @PostMapping("/batch")
+    @RateLimitCost(10)
+    @Operation(summary = "Criar usuários em lote", description = "Cria até 500 usuários em uma única requisição. "
+            + "Cada item recebe seu próprio resultado (CREATED, DUPLICATE_EMAIL ou INVALID), na ordem enviada")
+    public ResponseEntity<List<UserCreationResponse>> createUsers(@RequestBody List<CreateUserRequest> requests) {
+        List<NewUser> newUsers = new ArrayList<>(requests.size());
+        for (CreateUserRequest request : requests) {
+            newUsers.add(request != null ? new NewUser(request.getName(), request.getEmail()) : new NewUser(null, null));
+        }
+        List<UserCreationResult> results = userService.createUsers(newUsers);
+        List<UserCreationResponse> responses = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            responses.add(UserCreationResponse.from(i, results.get(i)));
+        }
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar usuário por ID", description = "Busca um usuário pelo seu ID")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
-        User user = userService.getUserById(id);
-        return ResponseEntity.ok(UserResponse.from(user));
+    public ResponseEntity<UserView> getUserById(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.getUserById(id));
     }
 
     @GetMapping("/email/{email}")
     @Operation(summary = "Buscar usuário por email", description = "Busca um usuário pelo seu email")
-    public ResponseEntity<UserResponse> getUserByEmail(@PathVariable String email) {
-        User user = userService.getUserByEmail(email);
-        return ResponseEntity.ok(UserResponse.from(user));
+    public ResponseEntity<UserView> getUserByEmail(@PathVariable String email) {
+        return ResponseEntity.ok(userService.getUserByEmail(email));
     }
 
     @GetMapping
-    @Operation(summary = "Listar todos os usuários", description = "Retorna uma lista com todos os usuários")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<UserResponse> responses = users.stream()
-                .map(UserResponse::from)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    @Operation(summary = "Listar usuários", description = "Retorna uma página de usuários ordenada por ID, "
+            + "com no máximo 'limit' itens (padrão 100, máximo 500), e não mais a lista completa. "
+            + "Quando houver mais resultados, o cabeçalho X-Next-Cursor traz o valor a usar em 'after'; "
+            + "para todos os usuários de uma vez, use /api/users/export")
+    public ResponseEntity<List<UserView>> getAllUsers(@RequestParam(required = false) Long after,
+                                                      @RequestParam(defaultValue = "100") int limit) {
+        List<UserView> users = userService.getUsers(after, limit);
+        if (users.size() == limit) {
+            return ResponseEntity.ok()
+                    .header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()))
+                    .body(users);
+        }
+        return ResponseEntity.ok(users);
+    }
+
+    // One query streamed with a cursor; the flat cost only discourages polling the export,
+    // its duration is bounded by the concurrency limiter rather than by tokens.
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @RateLimitCost(10)
+    @Operation(summary = "Exportar usuários", description = "Exporta todos os usuários em NDJSON, um objeto por linha, ordenados por ID")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                userService.exportUsers(user -> writeLine(generator, user));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    private void writeLine(JsonGenerator generator, UserView user) {
+        try {
+            exportWriter.writeValue(generator, user);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar usuário", description = "Atualiza os dados de um usuário existente")
+    @Operation(summary = "Atualizar usuário", description = "Atualiza os dados de um usuário existente. "
+            + "Com 'version', só atualiza se o usuário ainda estiver nessa versão (409 caso contrário); "
+            + "sem 'version', a última escrita prevalece")
     public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserRequest request) {
-        User user = userService.updateUser(id, request.getName(), request.getEmail());
+        User user = userService.updateUser(id, request.getName(), request.getEmail(), request.getVersion());
         return ResponseEntity.ok(UserResponse.from(user));
     }
 
@@ -0,0 +1,86 @@
+package com.gisiona.demodevinia.infrastructure.adapter.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gisiona.demodevinia.domain.model.UserView;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes any {@link UserView} (domain user, query row or {@code UserResponse}) with
+ * pre-encoded field names and no bean introspection, so read endpoints can serialize
+ * query results directly. The output matches the default serialization of
+ * {@code UserResponse}; dates go through whatever {@link LocalDateTime} serializer the
+ * application's {@code ObjectMapper} is configured with.
+ */
+@JsonComponent
+public class UserViewSerializer extends StdSerializer<UserView> implements ContextualSerializer {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private final JsonSerializer<Object> dateSerializer;
+
+    public UserViewSerializer() {
+        this(null);
+    }
+
+    private UserViewSerializer(JsonSerializer<Object> dateSerializer) {
+        super(UserView.class);
+        this.dateSerializer = dateSerializer;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        if (dateSerializer != null) {
+            return this;
+        }
+        return new UserViewSerializer(provider.findValueSerializer(LocalDateTime.class));
+    }
+
+    @Override
+    public void serialize(UserView user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(user);
+        generator.writeFieldName(ID);
+        writeNumber(generator, user.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(user.getName());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(user.getEmail());
+        generator.writeFieldName(CREATED_AT);
+        writeDate(generator, provider, user.getCreatedAt());
+        generator.writeFieldName(UPDATED_AT);
+        writeDate(generator, provider, user.getUpdatedAt());
+        generator.writeFieldName(VERSION);
+        writeNumber(generator, user.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private void writeDate(JsonGenerator generator, SerializerProvider provider, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            dateSerializer.serialize(value, generator, provider);
+        }
+    }
+}
@@ -14,6 +14,8 @@ public class UpdateUserRequest {
     @Email(message = "Email deve ter formato válido")
     private String email;
 
+    private Long version;
+
     public UpdateUserRequest() {}
 
     public UpdateUserRequest(String name, String email) {
@@ -26,4 +28,7 @@ public class UpdateUserRequest {
 
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,41 @@
+package com.gisiona.demodevinia.infrastructure.adapter.web.dto;
+
+import com.gisiona.demodevinia.domain.model.UserCreationResult;
+
+public class UserCreationResponse {
+
+    private int index;
+    private String status;
+    private UserResponse user;
+    private String message;
+
+    public UserCreationResponse() {}
+
+    public UserCreationResponse(int index, String status, UserResponse user, String message) {
+        this.index = index;
+        this.status = status;
+        this.user = user;
+        this.message = message;
+    }
+
+    public static UserCreationResponse from(int index, UserCreationResult result) {
+        return new UserCreationResponse(
+                index,
+                result.getStatus().name(),
+                result.getUser() != null ? UserResponse.from(result.getUser()) : null,
+                result.getMessage()
+        );
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public UserResponse getUser() { return user; }
+    public void setUser(UserResponse user) { this.user = user; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
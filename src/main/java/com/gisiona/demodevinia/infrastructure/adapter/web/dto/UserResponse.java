@@ -1,24 +1,31 @@
 package com.gisiona.demodevinia.infrastructure.adapter.web.dto;
 
 import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserView;
 import java.time.LocalDateTime;
 
-public class UserResponse {
+public class UserResponse implements UserView {
 
     private Long id;
     private String name;
     private String email;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public UserResponse() {}
 
     public UserResponse(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, email, createdAt, updatedAt, null);
+    }
+
+    public UserResponse(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     public static UserResponse from(User user) {
@@ -27,7 +34,8 @@ public class UserResponse {
                 user.getName(),
                 user.getEmail(),
                 user.getCreatedAt(),
-                user.getUpdatedAt()
+                user.getUpdatedAt(),
+                user.getVersion()
         );
     }
 
@@ -45,4 +53,7 @@ public class UserResponse {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,226 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserView;
+import com.gisiona.demodevinia.domain.port.UserQueryPort;
+import com.gisiona.demodevinia.domain.port.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of the {@link UserQueryPort} for lookups by id and by
+ * email, wrapping the {@link UserRepository} as well so it sees every write. Users are
+ * cached by id; emails map to ids through a secondary index, so an email lookup is
+ * served from the same entry and a stale index entry (email changed) is detected by
+ * comparing the cached user's email.
+ * <p>
+ * Writes go straight to the repository and evict the affected id and emails, once right
+ * away and once more after the surrounding transaction completes, so a reader that
+ * loaded the old row before the commit cannot leave it in the cache. Updates and
+ * deletes are also appended to the {@link UserChangeLog}, in the same transaction, so
+ * the other replicas evict them too (see {@link UserCacheInvalidator}). Listings and the
+ * export bypass the cache.
+ * <p>
+ * Misses are loaded through {@code loader} rather than {@code queries}. With a read
+ * replica, {@code queries} may read a replica that has not applied the write yet, and the
+ * old row it returns right after an eviction would then be cached until it expires; the
+ * loader reads the primary, so an evicted entry only comes back committed.
+ */
+public class CachingUserRepository implements UserRepository, UserQueryPort, MeterBinder {
+
+    private final UserRepository delegate;
+    private final UserQueryPort queries;
+    private final UserQueryPort loader;
+    private final Cache<Long, UserView> usersById;
+    private final Cache<String, Long> idsByEmail;
+    private final UserChangeLog changeLog;
+
+    public CachingUserRepository(UserRepository delegate, UserQueryPort queries, long maximumSize,
+                                 Duration expireAfterWrite) {
+        this(delegate, queries, maximumSize, expireAfterWrite, null);
+    }
+
+    public CachingUserRepository(UserRepository delegate, UserQueryPort queries, long maximumSize,
+                                 Duration expireAfterWrite, UserChangeLog changeLog) {
+        this(delegate, queries, queries, maximumSize, expireAfterWrite, changeLog);
+    }
+
+    public CachingUserRepository(UserRepository delegate, UserQueryPort queries, UserQueryPort loader,
+                                 long maximumSize, Duration expireAfterWrite, UserChangeLog changeLog) {
+        this.delegate = delegate;
+        this.queries = queries;
+        this.loader = loader;
+        this.changeLog = changeLog;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, usersById, "users.by-id");
+        CaffeineCacheMetrics.monitor(registry, idsByEmail, "users.id-by-email");
+    }
+
+    @Override
+    public User save(User user) {
+        evictAfterWrite(user.getId());
+        User saved = delegate.save(user);
+        evictAfterWrite(saved.getId(), saved.getEmail());
+        if (user.getId() != null) {
+            publish(saved.getId(), saved.getEmail());
+        }
+        return saved;
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        for (User user : users) {
+            evictAfterWrite(user.getId());
+        }
+        List<User> saved = delegate.saveAll(users);
+        for (int i = 0; i < users.size(); i++) {
+            if (users.get(i).getId() != null) {
+                publish(saved.get(i).getId(), saved.get(i).getEmail());
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        evictAfterWrite(user.getId());
+        Optional<User> updated = delegate.update(user);
+        updated.ifPresent(saved -> {
+            evictAfterWrite(saved.getId(), saved.getEmail());
+            publish(saved.getId(), saved.getEmail());
+        });
+        return updated;
+    }
+
+    @Override
+    public Optional<UserView> findById(Long id) {
+        return Optional.ofNullable(usersById.get(id, this::load));
+    }
+
+    @Override
+    public Optional<UserView> findByEmail(String email) {
+        String key = emailKey(email);
+        Long id = idsByEmail.getIfPresent(key);
+        if (id != null) {
+            UserView cached = usersById.getIfPresent(id);
+            if (cached != null && emailKey(cached.getEmail()).equals(key)) {
+                return Optional.of(cached);
+            }
+            idsByEmail.invalidate(key);
+        }
+        // Only the id is taken from this read. Putting the row itself could cache a version
+        // an eviction has already removed; loading it per key, as findById does, cannot.
+        Optional<UserView> found = loader.findByEmail(email);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        UserView user = usersById.get(found.get().getId(), this::load);
+        return user != null && emailKey(user.getEmail()).equals(key) ? Optional.of(user) : Optional.empty();
+    }
+
+    @Override
+    public List<UserView> findPage(Long afterId, int limit) {
+        return queries.findPage(afterId, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<UserView> action) {
+        queries.forEach(action);
+    }
+
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        evictAfterWrite(id);
+        int deleted = delegate.deleteByIdReturningCount(id);
+        if (deleted > 0) {
+            publish(id, null);
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<String> findExistingEmails(Collection<String> emails) {
+        return delegate.findExistingEmails(emails);
+    }
+
+    long cachedUsers() {
+        usersById.cleanUp();
+        return usersById.estimatedSize();
+    }
+
+    private UserView load(Long id) {
+        UserView user = loader.findById(id).orElse(null);
+        if (user != null) {
+            idsByEmail.put(emailKey(user.getEmail()), id);
+        }
+        return user;
+    }
+
+    private void evictAfterWrite(Long id) {
+        evictAfterWrite(id, null);
+    }
+
+    private void evictAfterWrite(Long id, String email) {
+        if (id == null && email == null) {
+            return;
+        }
+        invalidate(id, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id, email);
+                }
+            });
+        }
+    }
+
+    private void publish(Long id, String email) {
+        if (changeLog != null) {
+            changeLog.append(id, email);
+        }
+    }
+
+    void invalidate(Long id, String email) {
+        if (id != null) {
+            UserView cached = usersById.getIfPresent(id);
+            if (cached != null) {
+                idsByEmail.invalidate(emailKey(cached.getEmail()));
+            }
+            usersById.invalidate(id);
+        }
+        if (email != null) {
+            idsByEmail.invalidate(emailKey(email));
+        }
+    }
+
+    // MySQL compares emails case-insensitively and User stores them lowercased.
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
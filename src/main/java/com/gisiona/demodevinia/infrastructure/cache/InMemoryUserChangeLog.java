@@ -0,0 +1,66 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process stand-in for the shared change log. Several caches pointing at the same
+ * instance behave like replicas sharing a database.
+ */
+public class InMemoryUserChangeLog implements UserChangeLog {
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Clock clock;
+    private long lastPosition;
+
+    public InMemoryUserChangeLog() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryUserChangeLog(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized void append(Long userId, String email) {
+        entries.add(new Entry(new UserChange(++lastPosition, userId, email), clock.instant()));
+    }
+
+    @Override
+    public synchronized List<UserChange> readAfter(long position, int limit) {
+        List<UserChange> changes = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.change.getPosition() > position) {
+                changes.add(entry.change);
+                if (changes.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public synchronized long latestPosition() {
+        return lastPosition;
+    }
+
+    @Override
+    public synchronized int purgeBefore(Instant instant) {
+        int before = entries.size();
+        entries.removeIf(entry -> entry.changedAt.isBefore(instant));
+        return before - entries.size();
+    }
+
+    private static final class Entry {
+        private final UserChange change;
+        private final Instant changedAt;
+
+        private Entry(UserChange change, Instant changedAt) {
+            this.change = change;
+            this.changedAt = changedAt;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Change log backed by the application datasource (MySQL in production, H2 in tests).
+ * <p>
+ * Rows are appended in the same transaction as the user write, so a change becomes
+ * visible to other nodes exactly when the write commits.
+ */
+public class JdbcUserChangeLog implements UserChangeLog {
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS user_change_log ("
+            + "id BIGINT NOT NULL AUTO_INCREMENT, "
+            + "user_id BIGINT, "
+            + "email VARCHAR(255), "
+            + "changed_at TIMESTAMP NOT NULL, "
+            + "PRIMARY KEY (id))";
+
+    private static final String INSERT = "INSERT INTO user_change_log (user_id, email, changed_at) VALUES (?, ?, ?)";
+    private static final String SELECT_AFTER = "SELECT id, user_id, email FROM user_change_log "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_LATEST = "SELECT COALESCE(MAX(id), 0) FROM user_change_log";
+    private static final String DELETE_BEFORE = "DELETE FROM user_change_log WHERE changed_at < ?";
+
+    private static final RowMapper<UserChange> ROW_MAPPER = (rs, rowNum) -> new UserChange(
+            rs.getLong("id"), (Long) rs.getObject("user_id", Long.class), rs.getString("email"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public JdbcUserChangeLog(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemUTC());
+    }
+
+    public JdbcUserChangeLog(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    public void initializeSchema() {
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public void append(Long userId, String email) {
+        jdbcTemplate.update(INSERT, userId, email, Timestamp.from(clock.instant()));
+    }
+
+    @Override
+    public List<UserChange> readAfter(long position, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER, ROW_MAPPER, position, limit);
+    }
+
+    @Override
+    public long latestPosition() {
+        Long latest = jdbcTemplate.queryForObject(SELECT_LATEST, Long.class);
+        return latest != null ? latest : 0;
+    }
+
+    @Override
+    public int purgeBefore(Instant instant) {
+        return jdbcTemplate.update(DELETE_BEFORE, Timestamp.from(instant));
+    }
+}
@@ -0,0 +1,93 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the shared {@link UserChangeLog} and evicts the changed users from this node's
+ * cache, so a write on another replica is visible here within one poll interval.
+ * <p>
+ * Log positions are assigned when a row is inserted but become visible when its
+ * transaction commits, so a slow writer can leave a hole that fills in later. The
+ * cursor does not move past a hole until it has been open for {@code gapTimeout};
+ * rows after it are evicted on every poll meanwhile, which is harmless. A change
+ * committed later than that is only covered by the cache's own expiry.
+ */
+public class UserCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidator.class);
+
+    static final int BATCH_SIZE = 500;
+    private static final long NO_GAP = Long.MIN_VALUE;
+
+    private final UserChangeLog changeLog;
+    private final CachingUserRepository cache;
+    private final long gapTimeoutMillis;
+    private final Duration retention;
+    private final Clock clock;
+    private long cursor;
+    private long gapSince = NO_GAP;
+
+    public UserCacheInvalidator(UserChangeLog changeLog, CachingUserRepository cache, Duration gapTimeout, Duration retention) {
+        this(changeLog, cache, gapTimeout, retention, Clock.systemUTC());
+    }
+
+    public UserCacheInvalidator(UserChangeLog changeLog, CachingUserRepository cache, Duration gapTimeout,
+                                Duration retention, Clock clock) {
+        this.changeLog = changeLog;
+        this.cache = cache;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.retention = retention;
+        this.clock = clock;
+        this.cursor = changeLog.latestPosition();
+    }
+
+    @Scheduled(fixedDelayString = "${user-cache.poll-interval-millis:1000}")
+    public synchronized void poll() {
+        List<UserChange> changes;
+        try {
+            changes = changeLog.readAfter(cursor, BATCH_SIZE);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read user change log after position {}", cursor, e);
+            return;
+        }
+        long now = clock.millis();
+        boolean blocked = false;
+        for (UserChange change : changes) {
+            cache.invalidate(change.getUserId(), change.getEmail());
+            if (blocked) {
+                continue;
+            }
+            if (change.getPosition() != cursor + 1) {
+                if (gapSince == NO_GAP) {
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMillis) {
+                    blocked = true;
+                    continue;
+                }
+            }
+            cursor = change.getPosition();
+            gapSince = NO_GAP;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user-cache.change-log-retention-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    public void purge() {
+        try {
+            changeLog.purgeBefore(clock.instant().minus(retention));
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge user change log", e);
+        }
+    }
+
+    synchronized long cursor() {
+        return cursor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+public class UserChange {
+
+    private final long position;
+    private final Long userId;
+    private final String email;
+
+    public UserChange(long position, Long userId, String email) {
+        this.position = position;
+        this.userId = userId;
+        this.email = email;
+    }
+
+    public long getPosition() { return position; }
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+}
@@ -0,0 +1,21 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Append-only log of user writes shared by all replicas, read by each node's
+ * {@link UserCacheInvalidator} to evict entries changed elsewhere. Positions increase
+ * with every append; a position may be missing for good if the writing transaction
+ * rolled back.
+ */
+public interface UserChangeLog {
+
+    void append(Long userId, String email);
+
+    List<UserChange> readAfter(long position, int limit);
+
+    long latestPosition();
+
+    int purgeBefore(Instant instant);
+}
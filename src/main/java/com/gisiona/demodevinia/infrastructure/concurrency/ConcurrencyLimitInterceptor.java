@@ -0,0 +1,84 @@
+package com.gisiona.demodevinia.infrastructure.concurrency;
+
+import com.gisiona.demodevinia.infrastructure.config.ConcurrencyLimitProperties;
+import com.gisiona.demodevinia.infrastructure.ratelimit.RejectionResponse;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Clock;
+
+/**
+ * Sheds load with 503 once the adaptive concurrency limit is reached, so that requests
+ * fail fast instead of queueing on the Tomcat thread pool and the JDBC connection pool
+ * while the database is slow.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+    static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".START";
+
+    private final GradientConcurrencyLimiter limiter;
+    private final ConcurrencyLimitProperties properties;
+    private final String retryAfter;
+    private final RejectionResponse rejectionResponse = new RejectionResponse(HttpStatus.SERVICE_UNAVAILABLE,
+            "Serviço sobrecarregado. Tente novamente mais tarde.", Clock.systemDefaultZone());
+
+    public ConcurrencyLimitInterceptor(GradientConcurrencyLimiter limiter, ConcurrencyLimitProperties properties) {
+        this.limiter = limiter;
+        this.properties = properties;
+        this.retryAfter = String.valueOf(properties.getRetryAfterSeconds());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!properties.isEnabled() || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        if (!limiter.tryAcquire()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Concurrency limit {} reached, rejecting {} {}",
+                    limiter.getLimit(), request.getMethod(), request.getRequestURI());
+            }
+
+            byte[] body = rejectionResponse.bytes();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType("application/json; charset=UTF-8");
+            response.setCharacterEncoding("UTF-8");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return false;
+        }
+
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Long-running async responses (streams) would skew the latency baseline, so they
+        // give their slot back without contributing a sample.
+        if (request.getAttribute(START_ATTRIBUTE) != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start instanceof Long startNanos) {
+            request.removeAttribute(START_ATTRIBUTE);
+            limiter.release(System.nanoTime() - startNanos);
+        }
+    }
+}
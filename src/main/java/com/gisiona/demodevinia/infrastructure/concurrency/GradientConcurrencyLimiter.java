@@ -0,0 +1,134 @@
+package com.gisiona.demodevinia.infrastructure.concurrency;
+
+import com.gisiona.demodevinia.infrastructure.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit on in-flight requests, following the gradient algorithm popularised by
+ * Netflix concurrency-limits.
+ * <p>
+ * Each completed request is a latency sample. A long-term average of the samples is the
+ * "no queueing" baseline; when recent latency rises above it (for instance because MySQL
+ * slowed down and requests wait on the connection pool), the gradient
+ * {@code tolerance * longRtt / shortRtt} drops below 1 and the limit shrinks. When
+ * latency is back at the baseline the limit grows again by a small queue allowance.
+ * <p>
+ * Updates are sampled: a completion that finds another thread already updating the limit
+ * skips its own update instead of waiting for the lock.
+ */
+@Component
+public class GradientConcurrencyLimiter implements MeterBinder {
+
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double longRttDecay;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    public GradientConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.rttTolerance = properties.getRttTolerance();
+        this.longRttDecay = 2.0 / (properties.getLongWindow() + 1);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    public void release(long rttNanos) {
+        int inflightAtCompletion = inflight.getAndDecrement();
+        if (rttNanos <= 0 || !updateLock.tryLock()) {
+            return;
+        }
+        try {
+            onSample(rttNanos, inflightAtCompletion);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, int inflightAtCompletion) {
+        double shortRtt = rttNanos;
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longRttNanos += (shortRtt - longRttNanos) / samples;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) * longRttDecay;
+        }
+
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        if (inflightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.server.concurrency.limit", this, GradientConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of concurrent API requests")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.inflight", this, GradientConcurrencyLimiter::getInflight)
+                .description("API requests currently being processed")
+                .register(registry);
+        FunctionCounter.builder("http.server.concurrency.rejected", this, GradientConcurrencyLimiter::getRejected)
+                .description("API requests rejected because the concurrency limit was reached")
+                .register(registry);
+    }
+}
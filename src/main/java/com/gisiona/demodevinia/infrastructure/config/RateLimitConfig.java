@@ -1,10 +1,13 @@
 package com.gisiona.demodevinia.infrastructure.config;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import io.github.bucket4j.Bucket;
+import com.gisiona.demodevinia.infrastructure.ratelimit.BucketSlab;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.InMemoryRateLimitBucketStore;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.JdbcRateLimitBucketStore;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.RateLimitBucketStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.Duration;
 
@@ -18,10 +21,27 @@ public class RateLimitConfig {
     }
 
     @Bean
-    public Cache<String, Bucket> rateLimitCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(rateLimitProperties.getCacheSize())
-                .expireAfterWrite(Duration.ofMinutes(rateLimitProperties.getCacheExpireMinutes()))
-                .build();
+    public BucketSlab rateLimitBuckets() {
+        return new BucketSlab(rateLimitProperties.getCacheSize(),
+                Duration.ofMinutes(rateLimitProperties.getCacheExpireMinutes()));
+    }
+
+    /**
+     * Picks the shared store from the bound {@code rate-limit.store} value. {@code LOCAL} registers no
+     * store, so every bucket stays in the local slab.
+     */
+    @Bean
+    public RateLimitBucketStore rateLimitBucketStore(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        return switch (rateLimitProperties.getStore()) {
+            case LOCAL -> null;
+            case IN_MEMORY -> new InMemoryRateLimitBucketStore();
+            case JDBC -> {
+                JdbcRateLimitBucketStore store = new JdbcRateLimitBucketStore(jdbcTemplate.getObject());
+                if (rateLimitProperties.isInitializeSchema()) {
+                    store.initializeSchema();
+                }
+                yield store;
+            }
+        };
     }
 }
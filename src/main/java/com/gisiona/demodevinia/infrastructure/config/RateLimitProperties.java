@@ -3,6 +3,9 @@ package com.gisiona.demodevinia.infrastructure.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @ConfigurationProperties(prefix = "rate-limit")
 public class RateLimitProperties {
@@ -11,6 +14,44 @@ public class RateLimitProperties {
     private int requestsPerMinute = 20;
     private int cacheSize = 100000;
     private int cacheExpireMinutes = 10;
+    private Store store = Store.LOCAL;
+    private boolean initializeSchema = false;
+    private int storePurgeIntervalMinutes = 10;
+    private int leasePercent = 10;
+    private int leaseMaxStalenessSeconds = 5;
+    private int rejectionLogIntervalSeconds = 10;
+    private int rejectionLogMaxKeys = 10000;
+    private List<Policy> policies = new ArrayList<>();
+
+    public static class Policy {
+
+        private String name;
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private Integer requestsPerMinute;
+        private Integer requestsPerHour;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+
+        public Integer getRequestsPerMinute() { return requestsPerMinute; }
+        public void setRequestsPerMinute(Integer requestsPerMinute) { this.requestsPerMinute = requestsPerMinute; }
+
+        public Integer getRequestsPerHour() { return requestsPerHour; }
+        public void setRequestsPerHour(Integer requestsPerHour) { this.requestsPerHour = requestsPerHour; }
+    }
+
+    public enum Store {
+        LOCAL,
+        JDBC,
+        IN_MEMORY
+    }
 
     public int getRequestsPerHour() {
         return requestsPerHour;
@@ -43,4 +84,68 @@ public class RateLimitProperties {
     public void setCacheExpireMinutes(int cacheExpireMinutes) {
         this.cacheExpireMinutes = cacheExpireMinutes;
     }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(Store store) {
+        this.store = store;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+
+    public int getStorePurgeIntervalMinutes() {
+        return storePurgeIntervalMinutes;
+    }
+
+    public void setStorePurgeIntervalMinutes(int storePurgeIntervalMinutes) {
+        this.storePurgeIntervalMinutes = storePurgeIntervalMinutes;
+    }
+
+    public int getLeasePercent() {
+        return leasePercent;
+    }
+
+    public void setLeasePercent(int leasePercent) {
+        this.leasePercent = leasePercent;
+    }
+
+    public int getLeaseMaxStalenessSeconds() {
+        return leaseMaxStalenessSeconds;
+    }
+
+    public void setLeaseMaxStalenessSeconds(int leaseMaxStalenessSeconds) {
+        this.leaseMaxStalenessSeconds = leaseMaxStalenessSeconds;
+    }
+
+    public int getRejectionLogIntervalSeconds() {
+        return rejectionLogIntervalSeconds;
+    }
+
+    public void setRejectionLogIntervalSeconds(int rejectionLogIntervalSeconds) {
+        this.rejectionLogIntervalSeconds = rejectionLogIntervalSeconds;
+    }
+
+    public int getRejectionLogMaxKeys() {
+        return rejectionLogMaxKeys;
+    }
+
+    public void setRejectionLogMaxKeys(int rejectionLogMaxKeys) {
+        this.rejectionLogMaxKeys = rejectionLogMaxKeys;
+    }
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
 }
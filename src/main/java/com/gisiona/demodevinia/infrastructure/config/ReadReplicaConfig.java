@@ -0,0 +1,70 @@
+package com.gisiona.demodevinia.infrastructure.config;
+
+import com.gisiona.demodevinia.infrastructure.datasource.ReadReplicaRoutingDataSource;
+import com.gisiona.demodevinia.infrastructure.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replaces the auto-configured datasource with a primary pool ({@code spring.datasource})
+ * and a replica pool ({@code read-replica}), routed by the transaction's read-only flag.
+ * The user cache loads its misses from {@code primaryDataSource} directly (see
+ * {@link UserCacheConfig}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private final ReadReplicaProperties properties;
+
+    public ReadReplicaConfig(ReadReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("read-replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(new JdbcTemplate(primaryDataSource),
+                new JdbcTemplate(replicaDataSource), Duration.ofMillis(properties.getMaxLagMillis()));
+        if (properties.isInitializeSchema()) {
+            monitor.initializeSchema();
+        }
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+    }
+}
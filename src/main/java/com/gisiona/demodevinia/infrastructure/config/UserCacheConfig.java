@@ -0,0 +1,73 @@
+package com.gisiona.demodevinia.infrastructure.config;
+
+import com.gisiona.demodevinia.domain.port.UserQueryPort;
+import com.gisiona.demodevinia.infrastructure.adapter.persistence.JdbcUserQueryAdapter;
+import com.gisiona.demodevinia.infrastructure.adapter.persistence.UserRepositoryAdapter;
+import com.gisiona.demodevinia.infrastructure.cache.CachingUserRepository;
+import com.gisiona.demodevinia.infrastructure.cache.InMemoryUserChangeLog;
+import com.gisiona.demodevinia.infrastructure.cache.JdbcUserChangeLog;
+import com.gisiona.demodevinia.infrastructure.cache.UserCacheInvalidator;
+import com.gisiona.demodevinia.infrastructure.cache.UserChangeLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class UserCacheConfig {
+
+    private final UserCacheProperties properties;
+
+    public UserCacheConfig(UserCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "user-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CachingUserRepository cachingUserRepository(UserRepositoryAdapter userRepositoryAdapter,
+                                                       JdbcUserQueryAdapter userQueryAdapter,
+                                                       @Qualifier("primaryDataSource") ObjectProvider<DataSource> primaryDataSource,
+                                                       ObjectProvider<UserChangeLog> userChangeLog,
+                                                       MeterRegistry meterRegistry) {
+        DataSource primary = primaryDataSource.getIfAvailable();
+        UserQueryPort loader = primary != null ? new JdbcUserQueryAdapter(primary) : userQueryAdapter;
+        CachingUserRepository repository = new CachingUserRepository(userRepositoryAdapter, userQueryAdapter, loader,
+                properties.getMaximumSize(), Duration.ofMinutes(properties.getExpireAfterWriteMinutes()),
+                userChangeLog.getIfAvailable());
+        repository.bindTo(meterRegistry);
+        return repository;
+    }
+
+    @Bean
+    @ConditionalOnExpression("${user-cache.enabled:true} and !'${user-cache.change-log:jdbc}'.equalsIgnoreCase('none')")
+    public UserCacheInvalidator userCacheInvalidator(UserChangeLog userChangeLog, CachingUserRepository cachingUserRepository) {
+        return new UserCacheInvalidator(userChangeLog, cachingUserRepository,
+                Duration.ofSeconds(properties.getGapTimeoutSeconds()),
+                Duration.ofMinutes(properties.getChangeLogRetentionMinutes()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-cache", name = "change-log", havingValue = "jdbc", matchIfMissing = true)
+    public UserChangeLog jdbcUserChangeLog(JdbcTemplate jdbcTemplate) {
+        JdbcUserChangeLog changeLog = new JdbcUserChangeLog(jdbcTemplate);
+        if (properties.isInitializeSchema()) {
+            changeLog.initializeSchema();
+        }
+        return changeLog;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-cache", name = "change-log", havingValue = "in-memory")
+    public UserChangeLog inMemoryUserChangeLog() {
+        return new InMemoryUserChangeLog();
+    }
+}
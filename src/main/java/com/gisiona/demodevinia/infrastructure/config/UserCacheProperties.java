@@ -0,0 +1,88 @@
+package com.gisiona.demodevinia.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "user-cache")
+public class UserCacheProperties {
+
+    private boolean enabled = true;
+    private long maximumSize = 10000;
+    private long expireAfterWriteMinutes = 10;
+    private ChangeLog changeLog = ChangeLog.JDBC;
+    private boolean initializeSchema = false;
+    private long pollIntervalMillis = 1000;
+    private long gapTimeoutSeconds = 10;
+    private long changeLogRetentionMinutes = 60;
+
+    public enum ChangeLog {
+        NONE,
+        JDBC,
+        IN_MEMORY
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public long getExpireAfterWriteMinutes() {
+        return expireAfterWriteMinutes;
+    }
+
+    public void setExpireAfterWriteMinutes(long expireAfterWriteMinutes) {
+        this.expireAfterWriteMinutes = expireAfterWriteMinutes;
+    }
+
+    public ChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public void setChangeLog(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public long getGapTimeoutSeconds() {
+        return gapTimeoutSeconds;
+    }
+
+    public void setGapTimeoutSeconds(long gapTimeoutSeconds) {
+        this.gapTimeoutSeconds = gapTimeoutSeconds;
+    }
+
+    public long getChangeLogRetentionMinutes() {
+        return changeLogRetentionMinutes;
+    }
+
+    public void setChangeLogRetentionMinutes(long changeLogRetentionMinutes) {
+        this.changeLogRetentionMinutes = changeLogRetentionMinutes;
+    }
+}
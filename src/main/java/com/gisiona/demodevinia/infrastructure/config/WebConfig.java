@@ -1,5 +1,6 @@
 package com.gisiona.demodevinia.infrastructure.config;
 
+import com.gisiona.demodevinia.infrastructure.concurrency.ConcurrencyLimitInterceptor;
 import com.gisiona.demodevinia.infrastructure.ratelimit.RateLimitInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -9,14 +10,18 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private final RateLimitInterceptor rateLimitInterceptor;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
 
-    public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor, ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
         this.rateLimitInterceptor = rateLimitInterceptor;
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(rateLimitInterceptor)
                 .addPathPatterns("/api/**");
+        registry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/api/**");
     }
 }
@@ -0,0 +1,101 @@
+package com.gisiona.demodevinia.infrastructure.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Decides whether the read replica is fresh enough to serve reads.
+ * <p>
+ * Each check writes the current time to a one-row heartbeat table on the primary and
+ * reads it back from the replica; replication carries the row over, so the difference
+ * is the replica's lag (over-estimated by at most one check interval). The replica is
+ * used only while that lag is within the tolerance. A failed check, a missing heartbeat
+ * or a failed replica connection sends reads back to the primary until a later check
+ * succeeds.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS replica_heartbeat ("
+            + "id INT NOT NULL, "
+            + "beat_at BIGINT NOT NULL, "
+            + "PRIMARY KEY (id))";
+
+    private static final String UPDATE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final Clock clock;
+    private volatile boolean replicaUsable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, Duration maxLag) {
+        this(primary, replica, maxLag, Clock.systemUTC());
+    }
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, Duration maxLag, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+        this.clock = clock;
+    }
+
+    public void initializeSchema() {
+        primary.execute(CREATE_TABLE);
+    }
+
+    @Scheduled(fixedDelayString = "${read-replica.lag-check-interval-millis:1000}")
+    public void check() {
+        long now = clock.millis();
+        try {
+            if (primary.update(UPDATE_BEAT, now) == 0) {
+                primary.update(INSERT_BEAT, now);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not write replica heartbeat on the primary", e);
+        }
+        try {
+            List<Long> beats = replica.queryForList(SELECT_BEAT, Long.class);
+            if (beats.isEmpty()) {
+                setReplicaUsable(false, "no heartbeat on the replica yet");
+                return;
+            }
+            lagMillis = Math.max(0, now - beats.get(0));
+            setReplicaUsable(lagMillis <= maxLagMillis, "lag " + lagMillis + " ms, tolerance " + maxLagMillis + " ms");
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public void markUnavailable(Exception cause) {
+        if (replicaUsable) {
+            logger.warn("Read replica unavailable, reading from the primary", cause);
+        }
+        replicaUsable = false;
+    }
+
+    private void setReplicaUsable(boolean usable, String reason) {
+        if (usable != replicaUsable) {
+            logger.info(usable ? "Read replica in use ({})" : "Read replica skipped, reading from the primary ({})", reason);
+        }
+        replicaUsable = usable;
+    }
+}
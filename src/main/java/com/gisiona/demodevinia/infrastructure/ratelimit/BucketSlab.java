@@ -0,0 +1,289 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.BucketLimits;
+import io.github.bucket4j.ConsumptionProbe;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local bucket state for the two-window policy ({@code Refill.intervally} per minute and
+ * per hour, counted from the first request of the client), kept in primitive arrays
+ * instead of one Bucket4j {@code Bucket} per client.
+ * <p>
+ * Each entry takes five longs: the two key halves, the creation time and policy id, and
+ * for each window the index of the last refilled interval plus the tokens left in it.
+ * With the hash chain and table this is about 48 bytes per client, so a million
+ * addresses fit in under 50 MB. The slab is split into independently locked segments;
+ * when a segment is full the least recently used entry is evicted using the CLOCK
+ * approximation (one reference bit per entry).
+ * <p>
+ * Entries older than {@code expireAfterWrite} start over with full windows, as the
+ * Caffeine cache that this replaces did.
+ */
+public class BucketSlab {
+
+    static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final int STRIDE = 5;
+    private static final int KEY_HIGH = 0;
+    private static final int KEY_LOW = 1;
+    private static final int META = 2;
+    private static final int MINUTE = 3;
+    private static final int HOUR = 4;
+
+    private static final int CREATED_SHIFT = 24;
+    private static final long POLICY_MASK = 0xFFFFL;
+    private static final long REFERENCED_BIT = 1L << 16;
+    private static final int MAX_POLICY_ID = (int) POLICY_MASK;
+    private static final long MAX_CREATED_OFFSET = (1L << (64 - CREATED_SHIFT)) - 1;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long expireAfterWriteMillis;
+    private final Clock clock;
+    private final long epochMillis;
+
+    public BucketSlab(int capacity, Duration expireAfterWrite) {
+        this(capacity, expireAfterWrite, Clock.systemUTC());
+    }
+
+    public BucketSlab(int capacity, Duration expireAfterWrite, Clock clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int segmentCount = segmentCount(capacity);
+        int segmentCapacity = (capacity + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        this.expireAfterWriteMillis = expireAfterWrite.toMillis();
+        this.clock = clock;
+        this.epochMillis = clock.millis();
+    }
+
+    public ConsumptionProbe tryConsume(ClientKey key, BucketLimits limits, long cost) {
+        checkLimits(key, limits);
+        long hash = hash(key);
+        return segmentFor(hash).tryConsume(key, hash, limits, cost, offset(clock.millis()));
+    }
+
+    public long getAvailableTokens(ClientKey key, BucketLimits limits) {
+        checkLimits(key, limits);
+        long hash = hash(key);
+        return segmentFor(hash).availableTokens(key, hash, limits, offset(clock.millis()));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return segments.length * segments[0].capacity;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    private long offset(long nowMillis) {
+        long offset = nowMillis - epochMillis;
+        if (offset < 0) {
+            return 0;
+        }
+        return Math.min(offset, MAX_CREATED_OFFSET);
+    }
+
+    private static void checkLimits(ClientKey key, BucketLimits limits) {
+        if (key.getPolicyId() < 0 || key.getPolicyId() > MAX_POLICY_ID) {
+            throw new IllegalArgumentException("Policy id out of range: " + key.getPolicyId());
+        }
+        if (limits.getRequestsPerMinute() > Integer.MAX_VALUE || limits.getRequestsPerHour() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bucket limits too large for the slab: "
+                    + limits.getRequestsPerMinute() + "/min, " + limits.getRequestsPerHour() + "/h");
+        }
+    }
+
+    static long hash(ClientKey key) {
+        return hash(key.getHigh(), key.getLow(), key.getPolicyId());
+    }
+
+    private static long hash(long high, long low, int policyId) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low ^ ((long) policyId << 48);
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    private static int segmentCount(int capacity) {
+        int wanted = Math.min(Runtime.getRuntime().availableProcessors() * 4, Math.max(1, capacity / 64));
+        return Integer.highestOneBit(Math.max(1, wanted));
+    }
+
+    private final class Segment {
+
+        private final int capacity;
+        private final long[] slab;
+        private final int[] chain;
+        private final int[] table;
+        private final int mask;
+        private int size;
+        private int hand;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.slab = new long[capacity * STRIDE];
+            this.chain = new int[capacity];
+            int tableSize = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            this.table = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        synchronized ConsumptionProbe tryConsume(ClientKey key, long hash, BucketLimits limits, long cost, long now) {
+            int base = find(key, hash) * STRIDE;
+            if (base < 0 || now - created(base) >= expireAfterWriteMillis) {
+                if (base < 0) {
+                    base = insert(key, hash) * STRIDE;
+                }
+                reset(base, key, limits, now);
+            } else {
+                slab[base + META] |= REFERENCED_BIT;
+                refill(base, limits, now);
+            }
+
+            long minuteTokens = tokens(slab[base + MINUTE]);
+            long hourTokens = tokens(slab[base + HOUR]);
+            long available = Math.max(0, Math.min(minuteTokens, hourTokens));
+            if (cost <= available) {
+                slab[base + MINUTE] -= cost;
+                slab[base + HOUR] -= cost;
+                return ConsumptionProbe.consumed(available - cost, 0);
+            }
+            return ConsumptionProbe.rejected(available, nanosToWait(base, cost, hourTokens, now), 0);
+        }
+
+        synchronized long availableTokens(ClientKey key, long hash, BucketLimits limits, long now) {
+            int slot = find(key, hash);
+            if (slot < 0 || now - created(slot * STRIDE) >= expireAfterWriteMillis) {
+                return Math.min(limits.getRequestsPerMinute(), limits.getRequestsPerHour());
+            }
+            int base = slot * STRIDE;
+            refill(base, limits, now);
+            return Math.max(0, Math.min(tokens(slab[base + MINUTE]), tokens(slab[base + HOUR])));
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int find(ClientKey key, long hash) {
+            int slot = table[(int) hash & mask] - 1;
+            while (slot >= 0) {
+                int base = slot * STRIDE;
+                if (slab[base + KEY_HIGH] == key.getHigh() && slab[base + KEY_LOW] == key.getLow()
+                        && (slab[base + META] & POLICY_MASK) == key.getPolicyId()) {
+                    return slot;
+                }
+                slot = chain[slot] - 1;
+            }
+            return -1;
+        }
+
+        private int insert(ClientKey key, long hash) {
+            int slot;
+            if (size < capacity) {
+                slot = size++;
+            } else {
+                slot = evict();
+            }
+            int bucket = (int) hash & mask;
+            chain[slot] = table[bucket];
+            table[bucket] = slot + 1;
+            return slot;
+        }
+
+        private int evict() {
+            while (true) {
+                int slot = hand;
+                hand = hand + 1 == capacity ? 0 : hand + 1;
+                int base = slot * STRIDE;
+                if ((slab[base + META] & REFERENCED_BIT) != 0) {
+                    slab[base + META] &= ~REFERENCED_BIT;
+                    continue;
+                }
+                unlink(slot, base);
+                return slot;
+            }
+        }
+
+        private void unlink(int slot, int base) {
+            long hash = hash(slab[base + KEY_HIGH], slab[base + KEY_LOW], (int) (slab[base + META] & POLICY_MASK));
+            int bucket = (int) hash & mask;
+            int previous = -1;
+            int current = table[bucket] - 1;
+            while (current != slot) {
+                previous = current;
+                current = chain[current] - 1;
+            }
+            if (previous < 0) {
+                table[bucket] = chain[slot];
+            } else {
+                chain[previous] = chain[slot];
+            }
+        }
+
+        private void reset(int base, ClientKey key, BucketLimits limits, long now) {
+            slab[base + KEY_HIGH] = key.getHigh();
+            slab[base + KEY_LOW] = key.getLow();
+            slab[base + META] = (now << CREATED_SHIFT) | REFERENCED_BIT | key.getPolicyId();
+            slab[base + MINUTE] = window(0, limits.getRequestsPerMinute());
+            slab[base + HOUR] = window(0, limits.getRequestsPerHour());
+        }
+
+        private void refill(int base, BucketLimits limits, long now) {
+            long elapsed = Math.max(0, now - created(base));
+            int minuteIndex = (int) (elapsed / MINUTE_MILLIS);
+            if (minuteIndex != index(slab[base + MINUTE])) {
+                slab[base + MINUTE] = window(minuteIndex, limits.getRequestsPerMinute());
+            }
+            int hourIndex = (int) (elapsed / HOUR_MILLIS);
+            if (hourIndex != index(slab[base + HOUR])) {
+                slab[base + HOUR] = window(hourIndex, limits.getRequestsPerHour());
+            }
+        }
+
+        // A cost above a window's capacity never fits; reporting that window's reset keeps the
+        // Retry-After header finite, as the store path does.
+        private long nanosToWait(int base, long cost, long hourTokens, long now) {
+            long created = created(base);
+            long millis = hourTokens < cost
+                    ? created + (index(slab[base + HOUR]) + 1L) * HOUR_MILLIS - now
+                    : created + (index(slab[base + MINUTE]) + 1L) * MINUTE_MILLIS - now;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        private long created(int base) {
+            return slab[base + META] >>> CREATED_SHIFT;
+        }
+    }
+
+    private static long window(int index, long tokens) {
+        return ((long) index << 32) | tokens;
+    }
+
+    private static int index(long window) {
+        return (int) (window >>> 32);
+    }
+
+    private static long tokens(long window) {
+        return (int) window;
+    }
+}
@@ -0,0 +1,83 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+/**
+ * Compact rate limit key for a client address.
+ * <p>
+ * Addresses are stored as 128 bits: IPv6 as-is and IPv4 in its IPv4-mapped IPv6 form
+ * ({@code ::ffff:a.b.c.d}), so both families share one representation and
+ * {@code 10.0.0.1} and {@code ::ffff:10.0.0.1} map to the same bucket. The policy id
+ * separates the buckets of one client under different {@link RateLimitPolicy policies}.
+ */
+public final class ClientKey {
+
+    static final long IPV4_MAPPED_PREFIX = 0xFFFF_0000_0000L;
+
+    private final long high;
+    private final long low;
+    private final int policyId;
+
+    ClientKey(long high, long low) {
+        this(high, low, RateLimitPolicy.DEFAULT_ID);
+    }
+
+    private ClientKey(long high, long low, int policyId) {
+        this.high = high;
+        this.low = low;
+        this.policyId = policyId;
+    }
+
+    public static ClientKey ofIpv4(long address) {
+        return new ClientKey(0L, IPV4_MAPPED_PREFIX | (address & 0xFFFF_FFFFL));
+    }
+
+    public static ClientKey ofIpv6(long high, long low) {
+        return new ClientKey(high, low);
+    }
+
+    public long getHigh() { return high; }
+    public long getLow() { return low; }
+    public int getPolicyId() { return policyId; }
+
+    public ClientKey forPolicy(int policyId) {
+        return this.policyId == policyId ? this : new ClientKey(high, low, policyId);
+    }
+
+    public boolean isIpv4() {
+        return high == 0L && (low >>> 32) == 0xFFFFL;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClientKey that = (ClientKey) o;
+        return high == that.high && low == that.low && policyId == that.policyId;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = (high * 0x9E3779B97F4A7C15L + low) * 31 + policyId;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(39);
+        if (isIpv4()) {
+            sb.append((low >>> 24) & 0xFF).append('.')
+              .append((low >>> 16) & 0xFF).append('.')
+              .append((low >>> 8) & 0xFF).append('.')
+              .append(low & 0xFF);
+            return sb.toString();
+        }
+        for (int group = 0; group < 8; group++) {
+            long half = group < 4 ? high : low;
+            int shift = 48 - (group % 4) * 16;
+            if (group > 0) {
+                sb.append(':');
+            }
+            sb.append(Long.toHexString((half >>> shift) & 0xFFFF));
+        }
+        return sb.toString();
+    }
+}
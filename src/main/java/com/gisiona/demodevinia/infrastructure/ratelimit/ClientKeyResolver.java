@@ -0,0 +1,221 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the rate limit key of a request straight from the header characters,
+ * without splitting, trimming or building intermediate strings.
+ * <p>
+ * Values that are not IPv4/IPv6 literals (hostnames, "unknown", obfuscated RFC 7239
+ * identifiers) are hashed into a 128-bit key instead of being rejected.
+ */
+@Component
+public class ClientKeyResolver {
+
+    public ClientKey resolve(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            int end = xForwardedFor.indexOf(',');
+            return parse(xForwardedFor, 0, end < 0 ? xForwardedFor.length() : end);
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return parse(xRealIp, 0, xRealIp.length());
+        }
+
+        String remoteAddr = request.getRemoteAddr();
+        return parse(remoteAddr, 0, remoteAddr.length());
+    }
+
+    public static ClientKey parse(CharSequence value) {
+        return parse(value, 0, value.length());
+    }
+
+    static ClientKey parse(CharSequence s, int from, int to) {
+        while (from < to && isWhitespace(s.charAt(from))) from++;
+        while (to > from && isWhitespace(s.charAt(to - 1))) to--;
+        int originalFrom = from;
+        int originalTo = to;
+
+        if (from < to && s.charAt(from) == '[') {
+            int close = indexOf(s, ']', from, to);
+            if (close > 0) {
+                from++;
+                to = close;
+            }
+        }
+        int zone = indexOf(s, '%', from, to);
+        if (zone >= 0) {
+            to = zone;
+        }
+
+        int colons = 0;
+        int lastColon = -1;
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == ':') {
+                colons++;
+                lastColon = i;
+            }
+        }
+
+        if (colons <= 1) {
+            long address = parseIpv4(s, from, colons == 1 ? lastColon : to);
+            if (address >= 0) {
+                return ClientKey.ofIpv4(address);
+            }
+        } else {
+            ClientKey key = parseIpv6(s, from, to);
+            if (key != null) {
+                return key;
+            }
+        }
+        return hashed(s, originalFrom, originalTo);
+    }
+
+    static long parseIpv4(CharSequence s, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int i = from;
+        while (i <= to) {
+            int start = i;
+            int value = 0;
+            while (i < to && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                value = value * 10 + (s.charAt(i) - '0');
+                i++;
+            }
+            int digits = i - start;
+            if (digits == 0 || digits > 3 || value > 255 || octets == 4) {
+                return -1;
+            }
+            address = (address << 8) | value;
+            octets++;
+            if (i == to) {
+                break;
+            }
+            if (s.charAt(i) != '.') {
+                return -1;
+            }
+            i++;
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    private static ClientKey parseIpv6(CharSequence s, int from, int to) {
+        int groups = countIpv6Groups(s, from, to);
+        if (groups < 0) {
+            return null;
+        }
+
+        long high = 0;
+        long low = 0;
+        int i = from;
+        while (i < to) {
+            if (s.charAt(i) == ':') {
+                if (i + 1 < to && s.charAt(i + 1) == ':') {
+                    for (int zero = groups; zero < 8; zero++) {
+                        high = (high << 16) | (low >>> 48);
+                        low <<= 16;
+                    }
+                    i += 2;
+                } else {
+                    i++;
+                }
+                continue;
+            }
+            int end = tokenEnd(s, i, to);
+            if (indexOf(s, '.', i, end) >= 0) {
+                high = (high << 32) | (low >>> 32);
+                low = (low << 32) | parseIpv4(s, i, end);
+            } else {
+                high = (high << 16) | (low >>> 48);
+                low = (low << 16) | parseHexGroup(s, i, end);
+            }
+            i = end;
+        }
+        return ClientKey.ofIpv6(high, low);
+    }
+
+    private static int countIpv6Groups(CharSequence s, int from, int to) {
+        int groups = 0;
+        boolean compressed = false;
+        int i = from;
+        while (i < to) {
+            if (s.charAt(i) == ':') {
+                if (i + 1 < to && s.charAt(i + 1) == ':') {
+                    if (compressed || (i + 2 < to && s.charAt(i + 2) == ':')) {
+                        return -1;
+                    }
+                    compressed = true;
+                    i += 2;
+                } else {
+                    if (i == from || i + 1 == to) {
+                        return -1;
+                    }
+                    i++;
+                }
+                continue;
+            }
+            int end = tokenEnd(s, i, to);
+            if (indexOf(s, '.', i, end) >= 0) {
+                if (end != to || parseIpv4(s, i, end) < 0) {
+                    return -1;
+                }
+                groups += 2;
+            } else {
+                if (end - i > 4 || parseHexGroup(s, i, end) < 0) {
+                    return -1;
+                }
+                groups++;
+            }
+            i = end;
+        }
+        if (compressed) {
+            return groups <= 7 ? groups : -1;
+        }
+        return groups == 8 ? groups : -1;
+    }
+
+    private static int parseHexGroup(CharSequence s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static ClientKey hashed(CharSequence s, int from, int to) {
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x9E3779B97F4A7C15L;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            h1 = (h1 ^ c) * 0x100000001b3L;
+            h2 = Long.rotateLeft(h2 ^ c, 31) * 0xbf58476d1ce4e5b9L;
+        }
+        return ClientKey.ofIpv6(h1, h2);
+    }
+
+    private static int tokenEnd(CharSequence s, int from, int to) {
+        int i = from;
+        while (i < to && s.charAt(i) != ':') i++;
+        return i;
+    }
+
+    private static int indexOf(CharSequence s, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
@@ -0,0 +1,20 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Number of rate limit tokens a request to the annotated handler consumes. Handlers
+ * without the annotation cost one token. On a controller class it applies to all of its
+ * handlers that do not declare their own cost.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RateLimitCost {
+
+    int value();
+}
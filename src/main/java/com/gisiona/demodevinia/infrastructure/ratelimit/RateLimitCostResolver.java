@@ -0,0 +1,62 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads {@link RateLimitCost} once per handler, when the handler mappings are ready,
+ * so the interceptor only does a map lookup per request.
+ */
+@Component
+public class RateLimitCostResolver {
+
+    public static final int DEFAULT_COST = 1;
+
+    private volatile Map<Method, Integer> costs = Collections.emptyMap();
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        Map<Method, Integer> resolved = new HashMap<>(costs);
+        for (RequestMappingHandlerMapping mapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                int cost = readCost(handlerMethod);
+                if (cost != DEFAULT_COST) {
+                    resolved.put(handlerMethod.getMethod(), cost);
+                }
+            }
+        }
+        costs = Collections.unmodifiableMap(resolved);
+    }
+
+    public int resolve(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return costs.getOrDefault(handlerMethod.getMethod(), DEFAULT_COST);
+        }
+        return DEFAULT_COST;
+    }
+
+    static int readCost(HandlerMethod handlerMethod) {
+        RateLimitCost cost = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RateLimitCost.class);
+        if (cost == null) {
+            cost = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RateLimitCost.class);
+        }
+        if (cost == null) {
+            return DEFAULT_COST;
+        }
+        if (cost.value() < 1) {
+            throw new IllegalStateException("@RateLimitCost must be at least 1 on " + handlerMethod);
+        }
+        return cost.value();
+    }
+}
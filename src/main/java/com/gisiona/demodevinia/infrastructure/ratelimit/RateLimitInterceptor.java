@@ -1,73 +1,108 @@
 package com.gisiona.demodevinia.infrastructure.ratelimit;
 
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
 
-import java.time.LocalDateTime;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+    private static final String[] SMALL_NUMBERS = new String[3601];
+
+    static {
+        for (int i = 0; i < SMALL_NUMBERS.length; i++) {
+            SMALL_NUMBERS[i] = String.valueOf(i);
+        }
+    }
+
     private final RateLimitService rateLimitService;
+    private final ClientKeyResolver clientKeyResolver;
+    private final RateLimitPolicyResolver policyResolver;
+    private final RateLimitCostResolver costResolver;
+    private final RateLimitRejectionLog rejectionLog;
+    private final RejectionResponse rejectionResponse = new RejectionResponse(HttpStatus.TOO_MANY_REQUESTS,
+            "Muitas requisições. Tente novamente mais tarde.", Clock.systemDefaultZone());
 
-    public RateLimitInterceptor(RateLimitService rateLimitService) {
+    public RateLimitInterceptor(RateLimitService rateLimitService, ClientKeyResolver clientKeyResolver,
+                                RateLimitPolicyResolver policyResolver, RateLimitCostResolver costResolver,
+                                RateLimitRejectionLog rejectionLog) {
         this.rateLimitService = rateLimitService;
+        this.clientKeyResolver = clientKeyResolver;
+        this.policyResolver = policyResolver;
+        this.costResolver = costResolver;
+        this.rejectionLog = rejectionLog;
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String clientIp = getClientIpAddress(request);
-        String key = "rate_limit:" + clientIp;
-        
-        MDC.put("clientIp", clientIp);
-        MDC.put("requestUri", request.getRequestURI());
-        MDC.put("httpMethod", request.getMethod());
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
 
-        long availableTokens = rateLimitService.getAvailableTokens(key);
-        
-        if (!rateLimitService.tryConsume(key)) {
-            logger.warn("Rate limit exceeded for client IP: {} on endpoint: {} {}", 
-                clientIp, request.getMethod(), request.getRequestURI());
-            
+        ClientKey key = clientKeyResolver.resolve(request);
+        RateLimitPolicy policy = policyResolver.resolve(request.getMethod(), getPathWithinApplication(request));
+
+        int cost = costResolver.resolve(handler);
+
+        ConsumptionProbe probe = rateLimitService.tryConsumeAndProbe(key, policy, cost);
+
+        if (!probe.isConsumed()) {
+            rejectionLog.record(key);
+
+            byte[] body = rejectionResponse.bytes();
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("X-Rate-Limit-Retry-After", toHeaderValue(toRetryAfterSeconds(probe.getNanosToWaitForRefill())));
             response.setContentType("application/json; charset=UTF-8");
             response.setCharacterEncoding("UTF-8");
-            response.getWriter().write(String.format(
-                "{\"status\":%d,\"message\":\"%s\",\"timestamp\":\"%s\"}",
-                HttpStatus.TOO_MANY_REQUESTS.value(),
-                "Muitas requisições. Tente novamente mais tarde.",
-                LocalDateTime.now().toString()
-            ));
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
             return false;
         }
 
-        availableTokens = rateLimitService.getAvailableTokens(key);
-        response.setHeader("X-Rate-Limit-Remaining", String.valueOf(availableTokens));
+        long availableTokens = probe.getRemainingTokens();
+        response.setHeader("X-Rate-Limit-Remaining", toHeaderValue(availableTokens));
         
-        logger.debug("Rate limit check passed for client IP: {} on endpoint: {} {}, remaining tokens: {}", 
-            clientIp, request.getMethod(), request.getRequestURI(), availableTokens);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rate limit check passed for client IP: {} on endpoint: {} {}, remaining tokens: {}", 
+                key, request.getMethod(), request.getRequestURI(), availableTokens);
+        }
         
         return true;
     }
 
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+    private PathContainer getPathWithinApplication(HttpServletRequest request) {
+        if (ServletRequestPathUtils.hasParsedRequestPath(request)) {
+            return ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
         }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+        // parseAndCache reads the servlet mapping, which requests built outside a container may not have
+        if (request.getHttpServletMapping() == null) {
+            return RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
         }
-        
-        return request.getRemoteAddr();
+        return ServletRequestPathUtils.parseAndCache(request).pathWithinApplication();
+    }
+
+    private static String toHeaderValue(long value) {
+        return value >= 0 && value < SMALL_NUMBERS.length ? SMALL_NUMBERS[(int) value] : String.valueOf(value);
+    }
+
+    private long toRetryAfterSeconds(long nanosToWaitForRefill) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanosToWaitForRefill);
+        if (TimeUnit.SECONDS.toNanos(seconds) < nanosToWaitForRefill) {
+            seconds++;
+        }
+        return Math.max(1, seconds);
     }
 }
@@ -0,0 +1,32 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.BucketLimits;
+
+public final class RateLimitPolicy {
+
+    public static final int DEFAULT_ID = 0;
+
+    private final int id;
+    private final String name;
+    private final BucketLimits limits;
+
+    public RateLimitPolicy(int id, String name, BucketLimits limits) {
+        this.id = id;
+        this.name = name;
+        this.limits = limits;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public BucketLimits getLimits() { return limits; }
+
+    @Override
+    public String toString() {
+        return "RateLimitPolicy{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", requestsPerMinute=" + limits.getRequestsPerMinute() +
+                ", requestsPerHour=" + limits.getRequestsPerHour() +
+                '}';
+    }
+}
@@ -0,0 +1,181 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.BucketLimits;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps a request to its {@link RateLimitPolicy}.
+ * <p>
+ * The configured path patterns are compiled once into a trie of path segments, so
+ * resolution walks the request path segment by segment instead of testing every pattern.
+ * Supported pattern segments are literals, {@code *} or {@code {name}} for exactly one
+ * segment, and a trailing {@code **} for any remainder. When several patterns match,
+ * literal segments win over {@code *}, which wins over {@code **}; a policy restricted
+ * to the request method wins over one that applies to every method.
+ * <p>
+ * Paths are matched on the segments Spring MVC routes on, decoded and without matrix
+ * parameters, so {@code /api/%75sers;x=1} gets the same policy as {@code /api/users}.
+ */
+@Component
+public class RateLimitPolicyResolver {
+
+    private final RateLimitPolicy defaultPolicy;
+    private final List<RateLimitPolicy> policies;
+    private final Node root = new Node();
+
+    public RateLimitPolicyResolver(RateLimitProperties rateLimitProperties) {
+        this.defaultPolicy = new RateLimitPolicy(RateLimitPolicy.DEFAULT_ID, "default", new BucketLimits(
+                rateLimitProperties.getRequestsPerMinute(), rateLimitProperties.getRequestsPerHour()));
+
+        List<RateLimitPolicy> compiled = new ArrayList<>();
+        compiled.add(defaultPolicy);
+        for (RateLimitProperties.Policy config : rateLimitProperties.getPolicies()) {
+            RateLimitPolicy policy = new RateLimitPolicy(compiled.size(), policyName(config, compiled.size()), new BucketLimits(
+                    config.getRequestsPerMinute() != null ? config.getRequestsPerMinute() : rateLimitProperties.getRequestsPerMinute(),
+                    config.getRequestsPerHour() != null ? config.getRequestsPerHour() : rateLimitProperties.getRequestsPerHour()));
+            insert(config, policy);
+            compiled.add(policy);
+        }
+        this.policies = Collections.unmodifiableList(compiled);
+    }
+
+    public RateLimitPolicy resolve(String method, String path) {
+        return resolve(method, PathContainer.parsePath(path));
+    }
+
+    public RateLimitPolicy resolve(String method, PathContainer path) {
+        RateLimitPolicy policy = match(root, path.elements(), 0, method);
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    public RateLimitPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public List<RateLimitPolicy> getPolicies() {
+        return policies;
+    }
+
+    private void insert(RateLimitProperties.Policy config, RateLimitPolicy policy) {
+        if (config.getPath() == null || config.getPath().isBlank()) {
+            throw new IllegalArgumentException("Rate limit policy '" + policy.getName() + "' must define a path");
+        }
+        String[] segments = config.getPath().split("/");
+        Node node = root;
+        boolean remainder = false;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i].trim();
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' is only supported at the end of a rate limit path: " + config.getPath());
+                }
+                remainder = true;
+            } else if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        MethodPolicies target;
+        if (remainder) {
+            if (node.remainder == null) {
+                node.remainder = new MethodPolicies();
+            }
+            target = node.remainder;
+        } else {
+            if (node.exact == null) {
+                node.exact = new MethodPolicies();
+            }
+            target = node.exact;
+        }
+        target.add(config.getMethods(), policy);
+    }
+
+    private static RateLimitPolicy match(Node node, List<PathContainer.Element> elements, int index, String method) {
+        int size = elements.size();
+        while (index < size && segmentValue(elements.get(index)).isEmpty()) {
+            index++;
+        }
+        if (index == size) {
+            RateLimitPolicy policy = node.exact != null ? node.exact.find(method) : null;
+            if (policy == null && node.remainder != null) {
+                policy = node.remainder.find(method);
+            }
+            return policy;
+        }
+
+        if (!node.literals.isEmpty()) {
+            Node literal = node.literals.get(segmentValue(elements.get(index)));
+            if (literal != null) {
+                RateLimitPolicy policy = match(literal, elements, index + 1, method);
+                if (policy != null) {
+                    return policy;
+                }
+            }
+        }
+        if (node.wildcard != null) {
+            RateLimitPolicy policy = match(node.wildcard, elements, index + 1, method);
+            if (policy != null) {
+                return policy;
+            }
+        }
+        return node.remainder != null ? node.remainder.find(method) : null;
+    }
+
+    private static String segmentValue(PathContainer.Element element) {
+        return element instanceof PathContainer.PathSegment segment ? segment.valueToMatch() : "";
+    }
+
+    private static String policyName(RateLimitProperties.Policy config, int id) {
+        return config.getName() != null ? config.getName() : "policy-" + id;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private MethodPolicies exact;
+        private MethodPolicies remainder;
+    }
+
+    private static final class MethodPolicies {
+        private final Map<String, RateLimitPolicy> byMethod = new HashMap<>();
+        private RateLimitPolicy anyMethod;
+
+        private void add(List<String> methods, RateLimitPolicy policy) {
+            if (methods == null || methods.isEmpty()) {
+                if (anyMethod == null) {
+                    anyMethod = policy;
+                }
+                return;
+            }
+            for (String method : methods) {
+                byMethod.putIfAbsent(method.trim().toUpperCase(Locale.ROOT), policy);
+            }
+        }
+
+        private RateLimitPolicy find(String method) {
+            if (!byMethod.isEmpty()) {
+                RateLimitPolicy policy = byMethod.get(method);
+                if (policy != null) {
+                    return policy;
+                }
+            }
+            return anyMethod;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts rejected requests per client and logs one summary line per client per interval,
+ * so that a flood of 429s costs a counter increment per request instead of a log event.
+ * Once {@code maxKeys} distinct clients are being tracked, further clients are only
+ * counted in aggregate. A client stops being tracked after an interval without rejections.
+ * <p>
+ * A request that looked up a client's counter just before the client was dropped can still
+ * increment it afterwards. Dropped counters are therefore kept for one more interval and
+ * anything counted on them is credited back to the client on the next flush.
+ */
+@Component
+public class RateLimitRejectionLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitRejectionLog.class);
+
+    private final ConcurrentHashMap<ClientKey, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    private List<Map.Entry<ClientKey, LongAdder>> retired = new ArrayList<>();
+    private final int maxKeys;
+    private final int intervalSeconds;
+
+    public RateLimitRejectionLog(RateLimitProperties rateLimitProperties) {
+        this.maxKeys = rateLimitProperties.getRejectionLogMaxKeys();
+        this.intervalSeconds = rateLimitProperties.getRejectionLogIntervalSeconds();
+    }
+
+    public void record(ClientKey key) {
+        LongAdder count = rejections.get(key);
+        if (count == null) {
+            if (rejections.size() >= maxKeys) {
+                untracked.increment();
+                return;
+            }
+            count = rejections.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.rejection-log-interval-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    @PreDestroy
+    public synchronized void flush() {
+        for (Map.Entry<ClientKey, LongAdder> entry : retired) {
+            long late = entry.getValue().sumThenReset();
+            if (late > 0) {
+                rejections.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(late);
+            }
+        }
+        List<Map.Entry<ClientKey, LongAdder>> dropped = new ArrayList<>();
+
+        for (Map.Entry<ClientKey, LongAdder> entry : rejections.entrySet()) {
+            ClientKey key = entry.getKey();
+            LongAdder count = entry.getValue();
+            // Reset rather than remove, so increments racing with the flush land in the next
+            // interval. A client is dropped once it had no rejections for a whole interval.
+            long rejected = count.sumThenReset();
+            if (rejected == 0) {
+                if (rejections.remove(key, count)) {
+                    dropped.add(Map.entry(key, count));
+                }
+                continue;
+            }
+            String clientIp = key.toString();
+            MDC.put("clientIp", clientIp);
+            try {
+                logger.warn("Rate limit exceeded for client IP: {} ({} requests rejected in the last {}s)",
+                    clientIp, rejected, intervalSeconds);
+            } finally {
+                MDC.remove("clientIp");
+            }
+        }
+
+        retired = dropped;
+
+        long others = untracked.sumThenReset();
+        if (others > 0) {
+            logger.warn("Rate limit exceeded for {} more requests from other clients in the last {}s",
+                others, intervalSeconds);
+        }
+    }
+
+    int trackedKeys() {
+        return rejections.size();
+    }
+
+    LongAdder counter(ClientKey key) {
+        return rejections.get(key);
+    }
+
+    long rejections(ClientKey key) {
+        LongAdder count = rejections.get(key);
+        return count == null ? 0 : count.sum();
+    }
+}
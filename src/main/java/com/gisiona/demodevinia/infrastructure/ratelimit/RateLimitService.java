@@ -1,10 +1,11 @@
 package com.gisiona.demodevinia.infrastructure.ratelimit;
 
-import com.github.benmanes.caffeine.cache.Cache;
 import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.RateLimitBucketStore;
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -12,36 +13,71 @@ import java.time.Duration;
 @Service
 public class RateLimitService {
 
-    private final Cache<String, Bucket> cache;
-    private final RateLimitProperties rateLimitProperties;
+    private final BucketSlab buckets;
+    private final RateLimitPolicy defaultPolicy;
+    private final TokenReservations tokenReservations;
 
-    public RateLimitService(Cache<String, Bucket> cache, RateLimitProperties rateLimitProperties) {
-        this.cache = cache;
-        this.rateLimitProperties = rateLimitProperties;
+    @Autowired
+    public RateLimitService(BucketSlab buckets, RateLimitProperties rateLimitProperties,
+                            RateLimitPolicyResolver policyResolver, ObjectProvider<RateLimitBucketStore> bucketStore) {
+        this.buckets = buckets;
+        this.defaultPolicy = policyResolver.getDefaultPolicy();
+        RateLimitBucketStore store = bucketStore.getIfAvailable();
+        this.tokenReservations = store == null ? null : new TokenReservations(
+                store,
+                buckets,
+                rateLimitProperties.getLeasePercent(),
+                Duration.ofSeconds(rateLimitProperties.getLeaseMaxStalenessSeconds()),
+                rateLimitProperties.getCacheSize());
     }
 
-    public Bucket createNewBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(
-                    rateLimitProperties.getRequestsPerHour(), 
-                    Refill.intervally(rateLimitProperties.getRequestsPerHour(), Duration.ofHours(1))
-                ))
-                .addLimit(Bandwidth.classic(
-                    rateLimitProperties.getRequestsPerMinute(), 
-                    Refill.intervally(rateLimitProperties.getRequestsPerMinute(), Duration.ofMinutes(1))
-                ))
-                .build();
+    /**
+     * For tests and benchmarks: every bucket stays in the local slab.
+     */
+    public RateLimitService(BucketSlab buckets, RateLimitPolicyResolver policyResolver) {
+        this.buckets = buckets;
+        this.defaultPolicy = policyResolver.getDefaultPolicy();
+        this.tokenReservations = null;
     }
 
-    public Bucket resolveBucket(String key) {
-        return cache.get(key, k -> createNewBucket());
+    @PreDestroy
+    public void releaseLeases() {
+        if (tokenReservations != null) {
+            tokenReservations.releaseAll();
+        }
     }
 
-    public boolean tryConsume(String key) {
-        return resolveBucket(key).tryConsume(1);
+    public boolean tryConsume(ClientKey key) {
+        return tryConsumeAndProbe(key).isConsumed();
     }
 
-    public long getAvailableTokens(String key) {
-        return resolveBucket(key).getAvailableTokens();
+    public boolean tryConsume(ClientKey key, RateLimitPolicy policy, long cost) {
+        return tryConsumeAndProbe(key, policy, cost).isConsumed();
+    }
+
+    public ConsumptionProbe tryConsumeAndProbe(ClientKey key) {
+        return tryConsumeAndProbe(key, defaultPolicy);
+    }
+
+    public ConsumptionProbe tryConsumeAndProbe(ClientKey key, RateLimitPolicy policy) {
+        return tryConsumeAndProbe(key, policy, 1);
+    }
+
+    public ConsumptionProbe tryConsumeAndProbe(ClientKey key, RateLimitPolicy policy, long cost) {
+        if (tokenReservations != null) {
+            return tokenReservations.tryConsume(key.forPolicy(policy.getId()), policy.getLimits(), cost);
+        }
+        return buckets.tryConsume(key.forPolicy(policy.getId()), policy.getLimits(), cost);
+    }
+
+    public long getAvailableTokens(ClientKey key) {
+        return getAvailableTokens(key, defaultPolicy);
+    }
+
+    public long getAvailableTokens(ClientKey key, RateLimitPolicy policy) {
+        if (tokenReservations != null) {
+            return tokenReservations.getAvailableTokens(key.forPolicy(policy.getId()), policy.getLimits());
+        }
+        return buckets.getAvailableTokens(key.forPolicy(policy.getId()), policy.getLimits());
     }
 }
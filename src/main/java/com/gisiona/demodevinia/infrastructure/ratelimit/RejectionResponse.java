@@ -0,0 +1,53 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Pre-encoded error body for requests rejected under load (429, 503). The only varying
+ * part is the timestamp, which has second precision, so the bytes are rebuilt at most
+ * once per second and shared by every rejection in between.
+ */
+public final class RejectionResponse {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final String prefix;
+    private final Clock clock;
+    private volatile Body body = new Body(Long.MIN_VALUE, null);
+
+    public RejectionResponse(HttpStatus status, String message, Clock clock) {
+        this.prefix = "{\"status\":" + status.value() + ",\"message\":\"" + message + "\",\"timestamp\":\"";
+        this.clock = clock;
+    }
+
+    public byte[] bytes() {
+        long second = Math.floorDiv(clock.millis(), 1000);
+        Body current = body;
+        if (current.second != second) {
+            current = new Body(second, encode(second));
+            body = current;
+        }
+        return current.bytes;
+    }
+
+    private byte[] encode(long second) {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), clock.getZone());
+        return (prefix + TIMESTAMP_FORMAT.format(timestamp) + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Body {
+        private final long second;
+        private final byte[] bytes;
+
+        private Body(long second, byte[] bytes) {
+            this.second = second;
+            this.bytes = bytes;
+        }
+    }
+}
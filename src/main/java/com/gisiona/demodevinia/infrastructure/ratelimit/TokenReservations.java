@@ -0,0 +1,177 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.BucketLimits;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.RateLimitBucketStore;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.TokenGrant;
+import io.github.bucket4j.ConsumptionProbe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consumes tokens from a shared {@link RateLimitBucketStore} through short-lived leases:
+ * a chunk of tokens is leased from the store and handed out locally, so only one request
+ * per lease pays the round-trip. The chunk is {@code leasePercent} of the per-minute limit
+ * of the bucket being leased, so a strict policy never lets one replica take the budget
+ * of the whole cluster. When a lease is older than the maximum staleness (or is
+ * evicted) its unused tokens are returned to the store in the background.
+ * <p>
+ * The trade-off is bounded over-admission: a replica may keep handing out leased tokens
+ * for up to the staleness window after the shared bucket has been refilled or drained.
+ * <p>
+ * When the store cannot be reached (or keeps losing the compare-and-swap on a hot key),
+ * the request is limited against the local {@link BucketSlab} instead, so an outage of
+ * the store degrades limits to per-replica rather than failing the request. Failures are
+ * logged at most once per {@link #FAILURE_LOG_INTERVAL}.
+ */
+public class TokenReservations {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenReservations.class);
+
+    static final Duration FAILURE_LOG_INTERVAL = Duration.ofSeconds(10);
+
+    private final RateLimitBucketStore store;
+    private final BucketSlab fallback;
+    private final int leasePercent;
+    private final Cache<ClientKey, Lease> leases;
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong nextFailureLogNanos = new AtomicLong(System.nanoTime());
+
+    public TokenReservations(RateLimitBucketStore store, BucketSlab fallback, int leasePercent,
+                             Duration maxStaleness, long maximumSize) {
+        this.store = store;
+        this.fallback = fallback;
+        this.leasePercent = leasePercent;
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStaleness)
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener(this::onLeaseRemoved)
+                .build();
+    }
+
+    public ConsumptionProbe tryConsume(ClientKey key, BucketLimits limits) {
+        return tryConsume(key, limits, 1);
+    }
+
+    public ConsumptionProbe tryConsume(ClientKey key, BucketLimits limits, long cost) {
+        while (true) {
+            Lease lease = leases.get(key, k -> new Lease(limits));
+            synchronized (lease) {
+                if (lease.closed) {
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (lease.tokens < cost) {
+                    if (now - lease.blockedUntilNanos < 0) {
+                        return ConsumptionProbe.rejected(lease.tokens, lease.blockedUntilNanos - now, 0);
+                    }
+                    TokenGrant grant;
+                    try {
+                        grant = store.acquire(key, limits, Math.max(leaseSize(limits), cost - lease.tokens));
+                    } catch (RuntimeException e) {
+                        onStoreFailure(key, e);
+                        return fallback.tryConsume(key, limits, cost);
+                    }
+                    if (lease.grant != null && !lease.grant.isSameWindow(grant)) {
+                        lease.tokens = 0;
+                    }
+                    lease.grant = grant;
+                    lease.tokens += grant.getGranted();
+                    if (lease.tokens < cost) {
+                        long wait = grant.getNanosToWaitForRefill(cost - lease.tokens);
+                        if (wait == 0) {
+                            // The window rolled over and dropped the old tokens; the new one has enough.
+                            continue;
+                        }
+                        lease.blockedUntilNanos = now + wait;
+                        return ConsumptionProbe.rejected(lease.tokens + grant.getRemainingTokens(), wait, 0);
+                    }
+                }
+                lease.tokens -= cost;
+                return ConsumptionProbe.consumed(lease.tokens + lease.grant.getRemainingTokens(), 0);
+            }
+        }
+    }
+
+    /**
+     * Tokens this replica still holds for {@code key} plus what the shared bucket has left.
+     * Falls back to the local slab, which limits requests while the store is unreachable.
+     */
+    public long getAvailableTokens(ClientKey key, BucketLimits limits) {
+        long reserved = 0;
+        Lease lease = leases.getIfPresent(key);
+        if (lease != null) {
+            synchronized (lease) {
+                reserved = lease.tokens;
+            }
+        }
+        try {
+            return reserved + store.acquire(key, limits, 0).getRemainingTokens();
+        } catch (RuntimeException e) {
+            return fallback.getAvailableTokens(key, limits);
+        }
+    }
+
+    public void releaseAll() {
+        // The removal listener runs asynchronously; return the tokens on this thread so
+        // they are back in the store before shutdown continues.
+        leases.asMap().forEach((key, lease) -> onLeaseRemoved(key, lease, RemovalCause.EXPLICIT));
+        leases.invalidateAll();
+        leases.cleanUp();
+    }
+
+    private long leaseSize(BucketLimits limits) {
+        return Math.max(1, limits.getRequestsPerMinute() * leasePercent / 100);
+    }
+
+    private void onStoreFailure(ClientKey key, RuntimeException e) {
+        failures.increment();
+        long now = System.nanoTime();
+        long next = nextFailureLogNanos.get();
+        if (now - next >= 0 && nextFailureLogNanos.compareAndSet(next, now + FAILURE_LOG_INTERVAL.toNanos())) {
+            logger.warn("Rate limit store failed for {}; limited {} requests locally since the last report",
+                    key, failures.sumThenReset(), e);
+        }
+    }
+
+    private void onLeaseRemoved(ClientKey key, Lease lease, RemovalCause cause) {
+        if (key == null || lease == null) {
+            return;
+        }
+        long unused;
+        TokenGrant grant;
+        synchronized (lease) {
+            lease.closed = true;
+            unused = lease.tokens;
+            grant = lease.grant;
+            lease.tokens = 0;
+        }
+        if (unused > 0 && grant != null) {
+            try {
+                store.release(key, lease.limits, grant, unused);
+            } catch (RuntimeException e) {
+                logger.warn("Could not return {} unused rate limit tokens for {}", unused, key, e);
+            }
+        }
+    }
+
+    private static final class Lease {
+        private final BucketLimits limits;
+        private TokenGrant grant;
+        private long tokens;
+        private long blockedUntilNanos = System.nanoTime();
+        private boolean closed;
+
+        private Lease(BucketLimits limits) {
+            this.limits = limits;
+        }
+    }
+}
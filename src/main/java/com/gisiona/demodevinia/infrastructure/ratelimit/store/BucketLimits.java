@@ -0,0 +1,30 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import java.util.Objects;
+
+public final class BucketLimits {
+
+    private final long requestsPerMinute;
+    private final long requestsPerHour;
+
+    public BucketLimits(long requestsPerMinute, long requestsPerHour) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.requestsPerHour = requestsPerHour;
+    }
+
+    public long getRequestsPerMinute() { return requestsPerMinute; }
+    public long getRequestsPerHour() { return requestsPerHour; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BucketLimits that = (BucketLimits) o;
+        return requestsPerMinute == that.requestsPerMinute && requestsPerHour == that.requestsPerHour;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requestsPerMinute, requestsPerHour);
+    }
+}
@@ -0,0 +1,80 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stored state of a two-window bucket. Mirrors the local Bucket4j configuration:
+ * each window is refilled to full capacity once per interval, counted from the
+ * first request of the client ({@code Refill.intervally}).
+ */
+public final class BucketState {
+
+    static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final long minuteWindowStart;
+    private final long minuteTokens;
+    private final long hourWindowStart;
+    private final long hourTokens;
+
+    public BucketState(long minuteWindowStart, long minuteTokens, long hourWindowStart, long hourTokens) {
+        this.minuteWindowStart = minuteWindowStart;
+        this.minuteTokens = minuteTokens;
+        this.hourWindowStart = hourWindowStart;
+        this.hourTokens = hourTokens;
+    }
+
+    public static BucketState full(BucketLimits limits, long nowMillis) {
+        return new BucketState(nowMillis, limits.getRequestsPerMinute(), nowMillis, limits.getRequestsPerHour());
+    }
+
+    public BucketState refill(BucketLimits limits, long nowMillis) {
+        long newMinuteStart = minuteWindowStart;
+        long newMinuteTokens = minuteTokens;
+        if (nowMillis - minuteWindowStart >= MINUTE_MILLIS) {
+            newMinuteStart = nowMillis - (nowMillis - minuteWindowStart) % MINUTE_MILLIS;
+            newMinuteTokens = limits.getRequestsPerMinute();
+        }
+        long newHourStart = hourWindowStart;
+        long newHourTokens = hourTokens;
+        if (nowMillis - hourWindowStart >= HOUR_MILLIS) {
+            newHourStart = nowMillis - (nowMillis - hourWindowStart) % HOUR_MILLIS;
+            newHourTokens = limits.getRequestsPerHour();
+        }
+        if (newMinuteStart == minuteWindowStart && newHourStart == hourWindowStart) {
+            return this;
+        }
+        return new BucketState(newMinuteStart, newMinuteTokens, newHourStart, newHourTokens);
+    }
+
+    public long availableTokens() {
+        return Math.max(0, Math.min(minuteTokens, hourTokens));
+    }
+
+    public BucketState take(long tokens) {
+        return new BucketState(minuteWindowStart, minuteTokens - tokens, hourWindowStart, hourTokens - tokens);
+    }
+
+    public BucketState credit(BucketLimits limits, long grantMinuteWindowStart, long grantHourWindowStart, long tokens) {
+        long newMinuteTokens = minuteWindowStart == grantMinuteWindowStart
+                ? Math.min(minuteTokens + tokens, limits.getRequestsPerMinute())
+                : minuteTokens;
+        long newHourTokens = hourWindowStart == grantHourWindowStart
+                ? Math.min(hourTokens + tokens, limits.getRequestsPerHour())
+                : hourTokens;
+        return new BucketState(minuteWindowStart, newMinuteTokens, hourWindowStart, newHourTokens);
+    }
+
+    public long millisToMinuteRefill(long nowMillis) {
+        return Math.max(0, minuteWindowStart + MINUTE_MILLIS - nowMillis);
+    }
+
+    public long millisToHourRefill(long nowMillis) {
+        return Math.max(0, hourWindowStart + HOUR_MILLIS - nowMillis);
+    }
+
+    public long getMinuteWindowStart() { return minuteWindowStart; }
+    public long getMinuteTokens() { return minuteTokens; }
+    public long getHourWindowStart() { return hourWindowStart; }
+    public long getHourTokens() { return hourTokens; }
+}
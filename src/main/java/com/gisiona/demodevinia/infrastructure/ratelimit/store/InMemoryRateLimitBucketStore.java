@@ -0,0 +1,54 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.ClientKey;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-process stand-in for a shared store. Several {@code RateLimitService} instances
+ * pointing at the same instance behave like replicas sharing a database.
+ */
+public class InMemoryRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final ConcurrentMap<ClientKey, BucketState> buckets = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryRateLimitBucketStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryRateLimitBucketStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public TokenGrant acquire(ClientKey key, BucketLimits limits, long maxTokens) {
+        long now = clock.millis();
+        if (maxTokens == 0) {
+            BucketState current = buckets.get(key);
+            return TokenGrant.of(0, current == null ? BucketState.full(limits, now) : current.refill(limits, now), now);
+        }
+        long[] granted = new long[1];
+        BucketState state = buckets.compute(key, (k, current) -> {
+            BucketState refilled = current == null ? BucketState.full(limits, now) : current.refill(limits, now);
+            granted[0] = Math.min(maxTokens, refilled.availableTokens());
+            return granted[0] > 0 ? refilled.take(granted[0]) : refilled;
+        });
+        return TokenGrant.of(granted[0], state, now);
+    }
+
+    @Override
+    public void release(ClientKey key, BucketLimits limits, TokenGrant grant, long unusedTokens) {
+        if (unusedTokens <= 0) {
+            return;
+        }
+        buckets.computeIfPresent(key, (k, current) -> current.credit(
+                limits, grant.getMinuteWindowStart(), grant.getHourWindowStart(), unusedTokens));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,152 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.ClientKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bucket store backed by the application datasource (MySQL in production, H2 in tests).
+ * <p>
+ * Each acquire is an optimistic compare-and-swap on the {@code version} column: read
+ * the row, compute the new state, and update only if nobody else changed it meanwhile.
+ * <p>
+ * Rows whose minute and hour windows have both elapsed would be refilled to a full bucket
+ * on the next acquire, which is what a missing row means too, so they are purged
+ * periodically to keep the table at the size of the recently active clients.
+ */
+public class JdbcRateLimitBucketStore implements RateLimitBucketStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRateLimitBucketStore.class);
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS rate_limit_buckets ("
+            + "key_high BIGINT NOT NULL, "
+            + "key_low BIGINT NOT NULL, "
+            + "policy_id INT NOT NULL, "
+            + "minute_window_start BIGINT NOT NULL, "
+            + "minute_tokens BIGINT NOT NULL, "
+            + "hour_window_start BIGINT NOT NULL, "
+            + "hour_tokens BIGINT NOT NULL, "
+            + "version BIGINT NOT NULL, "
+            + "PRIMARY KEY (key_high, key_low, policy_id))";
+
+    private static final String SELECT = "SELECT minute_window_start, minute_tokens, hour_window_start, hour_tokens, version "
+            + "FROM rate_limit_buckets WHERE key_high = ? AND key_low = ? AND policy_id = ?";
+    private static final String INSERT = "INSERT INTO rate_limit_buckets "
+            + "(key_high, key_low, policy_id, minute_window_start, minute_tokens, hour_window_start, hour_tokens, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String COMPARE_AND_SET = "UPDATE rate_limit_buckets "
+            + "SET minute_window_start = ?, minute_tokens = ?, hour_window_start = ?, hour_tokens = ?, version = version + 1 "
+            + "WHERE key_high = ? AND key_low = ? AND policy_id = ? AND version = ?";
+
+    private static final String CREDIT = "UPDATE rate_limit_buckets SET "
+            + "minute_tokens = CASE WHEN minute_window_start = ? THEN LEAST(minute_tokens + ?, ?) ELSE minute_tokens END, "
+            + "hour_tokens = CASE WHEN hour_window_start = ? THEN LEAST(hour_tokens + ?, ?) ELSE hour_tokens END, "
+            + "version = version + 1 "
+            + "WHERE key_high = ? AND key_low = ? AND policy_id = ?";
+
+    private static final String DELETE_IDLE = "DELETE FROM rate_limit_buckets "
+            + "WHERE minute_window_start <= ? AND hour_window_start <= ?";
+
+    private static final int MAX_ATTEMPTS = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public JdbcRateLimitBucketStore(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemUTC());
+    }
+
+    public JdbcRateLimitBucketStore(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    public void initializeSchema() {
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public TokenGrant acquire(ClientKey key, BucketLimits limits, long maxTokens) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long now = clock.millis();
+            List<VersionedState> rows = jdbcTemplate.query(SELECT, ROW_MAPPER, key.getHigh(), key.getLow(), key.getPolicyId());
+
+            if (rows.isEmpty()) {
+                BucketState state = BucketState.full(limits, now);
+                long granted = Math.min(maxTokens, state.availableTokens());
+                if (granted == 0) {
+                    return TokenGrant.of(0, state, now);
+                }
+                BucketState updated = state.take(granted);
+                try {
+                    jdbcTemplate.update(INSERT, key.getHigh(), key.getLow(), key.getPolicyId(),
+                            updated.getMinuteWindowStart(), updated.getMinuteTokens(),
+                            updated.getHourWindowStart(), updated.getHourTokens());
+                    return TokenGrant.of(granted, updated, now);
+                } catch (DuplicateKeyException e) {
+                    continue;
+                }
+            }
+
+            VersionedState current = rows.get(0);
+            BucketState refilled = current.state.refill(limits, now);
+            long granted = Math.min(maxTokens, refilled.availableTokens());
+            if (granted == 0 && refilled == current.state) {
+                return TokenGrant.of(0, refilled, now);
+            }
+            BucketState updated = refilled.take(granted);
+            int changed = jdbcTemplate.update(COMPARE_AND_SET,
+                    updated.getMinuteWindowStart(), updated.getMinuteTokens(),
+                    updated.getHourWindowStart(), updated.getHourTokens(),
+                    key.getHigh(), key.getLow(), key.getPolicyId(), current.version);
+            if (changed == 1) {
+                return TokenGrant.of(granted, updated, now);
+            }
+        }
+        throw new IllegalStateException("Could not update rate limit bucket after " + MAX_ATTEMPTS + " attempts: " + key);
+    }
+
+    @Override
+    public void release(ClientKey key, BucketLimits limits, TokenGrant grant, long unusedTokens) {
+        if (unusedTokens <= 0) {
+            return;
+        }
+        jdbcTemplate.update(CREDIT,
+                grant.getMinuteWindowStart(), unusedTokens, limits.getRequestsPerMinute(),
+                grant.getHourWindowStart(), unusedTokens, limits.getRequestsPerHour(),
+                key.getHigh(), key.getLow(), key.getPolicyId());
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.store-purge-interval-minutes:10}", timeUnit = TimeUnit.MINUTES)
+    public void purgeIdle() {
+        long now = clock.millis();
+        try {
+            int purged = jdbcTemplate.update(DELETE_IDLE, now - BucketState.MINUTE_MILLIS, now - BucketState.HOUR_MILLIS);
+            logger.debug("Purged {} idle rate limit buckets", purged);
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge idle rate limit buckets", e);
+        }
+    }
+
+    private static final RowMapper<VersionedState> ROW_MAPPER = (rs, rowNum) -> new VersionedState(
+            new BucketState(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+            rs.getLong(5));
+
+    private static final class VersionedState {
+        private final BucketState state;
+        private final long version;
+
+        private VersionedState(BucketState state, long version) {
+            this.state = state;
+            this.version = version;
+        }
+    }
+}
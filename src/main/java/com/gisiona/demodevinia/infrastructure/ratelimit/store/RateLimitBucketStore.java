@@ -0,0 +1,26 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.ClientKey;
+
+/**
+ * Shared storage for rate limit buckets, so that limits hold across all replicas.
+ * <p>
+ * Implementations are expected to be remote, so callers reserve tokens in batches
+ * rather than calling the store once per request.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Takes up to {@code maxTokens} from the bucket of {@code key}. The grant may be
+     * smaller than requested, or empty when the bucket is exhausted. A {@code maxTokens}
+     * of zero only reads the bucket and never creates it.
+     */
+    TokenGrant acquire(ClientKey key, BucketLimits limits, long maxTokens);
+
+    /**
+     * Gives back tokens of {@code grant} that were not used. Tokens are only credited to
+     * windows that have not been refilled since the grant, so a release can never push
+     * a bucket above what it would have held without the lease.
+     */
+    void release(ClientKey key, BucketLimits limits, TokenGrant grant, long unusedTokens);
+}
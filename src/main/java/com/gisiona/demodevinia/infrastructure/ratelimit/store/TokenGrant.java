@@ -0,0 +1,57 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import java.util.concurrent.TimeUnit;
+
+public final class TokenGrant {
+
+    private final long granted;
+    private final long minuteTokens;
+    private final long hourTokens;
+    private final long nanosToMinuteRefill;
+    private final long nanosToHourRefill;
+    private final long minuteWindowStart;
+    private final long hourWindowStart;
+
+    public TokenGrant(long granted, long minuteTokens, long hourTokens, long nanosToMinuteRefill,
+                      long nanosToHourRefill, long minuteWindowStart, long hourWindowStart) {
+        this.granted = granted;
+        this.minuteTokens = minuteTokens;
+        this.hourTokens = hourTokens;
+        this.nanosToMinuteRefill = nanosToMinuteRefill;
+        this.nanosToHourRefill = nanosToHourRefill;
+        this.minuteWindowStart = minuteWindowStart;
+        this.hourWindowStart = hourWindowStart;
+    }
+
+    static TokenGrant of(long granted, BucketState state, long nowMillis) {
+        return new TokenGrant(granted, state.getMinuteTokens(), state.getHourTokens(),
+                TimeUnit.MILLISECONDS.toNanos(state.millisToMinuteRefill(nowMillis)),
+                TimeUnit.MILLISECONDS.toNanos(state.millisToHourRefill(nowMillis)),
+                state.getMinuteWindowStart(), state.getHourWindowStart());
+    }
+
+    public boolean isSameWindow(TokenGrant other) {
+        return minuteWindowStart == other.minuteWindowStart && hourWindowStart == other.hourWindowStart;
+    }
+
+    /**
+     * Time until the bucket holds at least {@code tokens} again, as of the grant: the
+     * later refill of the windows that are short of it, or zero if none is.
+     */
+    public long getNanosToWaitForRefill(long tokens) {
+        long nanos = 0;
+        if (minuteTokens < tokens) {
+            nanos = nanosToMinuteRefill;
+        }
+        if (hourTokens < tokens) {
+            nanos = Math.max(nanos, nanosToHourRefill);
+        }
+        return nanos;
+    }
+
+    public long getGranted() { return granted; }
+    public long getRemainingTokens() { return Math.max(0, Math.min(minuteTokens, hourTokens)); }
+    public long getNanosToWaitForRefill() { return getNanosToWaitForRefill(1); }
+    public long getMinuteWindowStart() { return minuteWindowStart; }
+    public long getHourWindowStart() { return hourWindowStart; }
+}
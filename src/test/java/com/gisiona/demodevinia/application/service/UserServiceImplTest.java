@@ -1,6 +1,11 @@
 package com.gisiona.demodevinia.application.service;
 
+import com.gisiona.demodevinia.domain.exception.DuplicateEmailException;
+import com.gisiona.demodevinia.domain.model.NewUser;
 import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserCreationResult;
+import com.gisiona.demodevinia.domain.model.UserView;
+import com.gisiona.demodevinia.domain.port.UserQueryPort;
 import com.gisiona.demodevinia.domain.port.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,12 +14,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,11 +31,14 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserQueryPort userQueryPort;
+
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, userQueryPort);
     }
 
     @Test
@@ -36,13 +47,11 @@ class UserServiceImplTest {
         String email = "joao@example.com";
         User savedUser = new User(1L, name, email, LocalDateTime.now(), LocalDateTime.now());
 
-        when(userRepository.existsByEmail(email)).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
         User result = userService.createUser(name, email);
 
         assertEquals(savedUser, result);
-        verify(userRepository).existsByEmail(email);
         verify(userRepository).save(any(User.class));
     }
 
@@ -51,7 +60,7 @@ class UserServiceImplTest {
         String name = "João Silva";
         String email = "joao@example.com";
 
-        when(userRepository.existsByEmail(email)).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenThrow(new DuplicateEmailException(email));
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -59,8 +68,6 @@ class UserServiceImplTest {
         );
 
         assertEquals("Email já está em uso: " + email, exception.getMessage());
-        verify(userRepository).existsByEmail(email);
-        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -68,19 +75,20 @@ class UserServiceImplTest {
         Long id = 1L;
         User user = new User(id, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userQueryPort.findById(id)).thenReturn(Optional.of(user));
 
-        User result = userService.getUserById(id);
+        UserView result = userService.getUserById(id);
 
         assertEquals(user, result);
-        verify(userRepository).findById(id);
+        verify(userQueryPort).findById(id);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void shouldThrowExceptionWhenUserNotFoundById() {
         Long id = 1L;
 
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userQueryPort.findById(id)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -88,7 +96,7 @@ class UserServiceImplTest {
         );
 
         assertEquals("Usuário não encontrado com ID: " + id, exception.getMessage());
-        verify(userRepository).findById(id);
+        verify(userQueryPort).findById(id);
     }
 
     @Test
@@ -96,19 +104,19 @@ class UserServiceImplTest {
         String email = "joao@example.com";
         User user = new User(1L, "João", email, LocalDateTime.now(), LocalDateTime.now());
 
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        when(userQueryPort.findByEmail(email)).thenReturn(Optional.of(user));
 
-        User result = userService.getUserByEmail(email);
+        UserView result = userService.getUserByEmail(email);
 
         assertEquals(user, result);
-        verify(userRepository).findByEmail(email);
+        verify(userQueryPort).findByEmail(email);
     }
 
     @Test
     void shouldThrowExceptionWhenUserNotFoundByEmail() {
         String email = "joao@example.com";
 
-        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(userQueryPort.findByEmail(email)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -116,104 +124,207 @@ class UserServiceImplTest {
         );
 
         assertEquals("Usuário não encontrado com email: " + email, exception.getMessage());
-        verify(userRepository).findByEmail(email);
+        verify(userQueryPort).findByEmail(email);
     }
 
     @Test
-    void shouldGetAllUsersSuccessfully() {
-        List<User> users = Arrays.asList(
-            new User(1L, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now()),
-            new User(2L, "Maria", "maria@example.com", LocalDateTime.now(), LocalDateTime.now())
-        );
+    void shouldGetPageOfUsers() {
+        List<UserView> users = List.of(new User(6L, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now()));
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userQueryPort.findPage(5L, 10)).thenReturn(users);
 
-        List<User> result = userService.getAllUsers();
+        assertEquals(users, userService.getUsers(5L, 10));
+        verifyNoInteractions(userRepository);
+    }
 
-        assertEquals(users, result);
-        verify(userRepository).findAll();
+    @Test
+    void shouldRejectPageSizeOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(null, UserServiceImpl.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(userRepository, userQueryPort);
     }
 
     @Test
-    void shouldUpdateUserSuccessfully() {
+    void shouldExportUsersThroughRepository() {
+        Consumer<UserView> action = user -> { };
+
+        userService.exportUsers(action);
+
+        verify(userQueryPort).forEach(action);
+    }
+
+    @Test
+    void shouldUpdateUserWithoutLoadingItFirst() {
         Long id = 1L;
         String newName = "João Silva";
         String newEmail = "joao.silva@example.com";
-        User existingUser = new User(id, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
-        User updatedUser = existingUser.update(newName, newEmail);
+        User updatedUser = new User(id, newName, newEmail, LocalDateTime.now(), LocalDateTime.now(), 2L);
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByEmail(newEmail)).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.update(any(User.class))).thenReturn(Optional.of(updatedUser));
 
-        User result = userService.updateUser(id, newName, newEmail);
+        User result = userService.updateUser(id, newName, newEmail, null);
 
-        assertEquals(updatedUser.getName(), result.getName());
-        assertEquals(updatedUser.getEmail(), result.getEmail());
-        verify(userRepository).findById(id);
-        verify(userRepository).existsByEmail(newEmail);
-        verify(userRepository).save(any(User.class));
+        assertEquals(updatedUser, result);
+        verify(userRepository).update(argThat(user -> user.getId().equals(id)
+                && user.getName().equals(newName)
+                && user.getEmail().equals(newEmail)
+                && user.getVersion() == null));
+        verifyNoInteractions(userQueryPort);
     }
 
     @Test
-    void shouldUpdateUserWithSameEmail() {
+    void shouldPassExpectedVersionToUpdate() {
+        User updatedUser = new User(1L, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now(), 4L);
+
+        when(userRepository.update(any(User.class))).thenReturn(Optional.of(updatedUser));
+
+        userService.updateUser(1L, "João", "joao@example.com", 3L);
+
+        verify(userRepository).update(argThat(user -> Long.valueOf(3L).equals(user.getVersion())));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenUpdatingNonExistentUser() {
         Long id = 1L;
-        String newName = "João Silva";
-        String sameEmail = "joao@example.com";
-        User existingUser = new User(id, "João", sameEmail, LocalDateTime.now(), LocalDateTime.now());
-        User updatedUser = existingUser.update(newName, sameEmail);
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.update(any(User.class))).thenReturn(Optional.empty());
 
-        User result = userService.updateUser(id, newName, sameEmail);
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> userService.updateUser(id, "João", "joao@example.com", null)
+        );
 
-        assertEquals(updatedUser.getName(), result.getName());
-        assertEquals(updatedUser.getEmail(), result.getEmail());
-        verify(userRepository).findById(id);
-        verify(userRepository, never()).existsByEmail(sameEmail);
-        verify(userRepository).save(any(User.class));
+        assertEquals("Usuário não encontrado com ID: " + id, exception.getMessage());
     }
 
     @Test
     void shouldThrowExceptionWhenUpdatingWithExistingEmail() {
         Long id = 1L;
-        String newName = "João Silva";
         String existingEmail = "maria@example.com";
-        User existingUser = new User(id, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByEmail(existingEmail)).thenReturn(true);
+        when(userRepository.update(any(User.class))).thenThrow(new DuplicateEmailException(existingEmail));
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
-            () -> userService.updateUser(id, newName, existingEmail)
+            () -> userService.updateUser(id, "João Silva", existingEmail, null)
         );
 
         assertEquals("Email já está em uso: " + existingEmail, exception.getMessage());
-        verify(userRepository).findById(id);
-        verify(userRepository).existsByEmail(existingEmail);
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void shouldNotTouchRepositoryWhenUpdateIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUser(1L, "", "joao@example.com", null));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldCreateBatchCheckingEmailsInOneQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NewUser> newUsers = List.of(
+                new NewUser("João", "joao@example.com"),
+                new NewUser("", "vazio@example.com"),
+                new NewUser("Maria", "MARIA@example.com"),
+                new NewUser("Ana", "usado@example.com"),
+                new NewUser("Maria Duplicada", "maria@example.com"));
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("usado@example.com"));
+        when(userRepository.saveAll(anyList())).thenReturn(List.of(
+                new User(10L, "João", "joao@example.com", now, now),
+                new User(11L, "Maria", "maria@example.com", now, now)));
+
+        List<UserCreationResult> results = userService.createUsers(newUsers);
+
+        assertEquals(5, results.size());
+        assertEquals(UserCreationResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getUser().getId());
+        assertEquals(UserCreationResult.Status.INVALID, results.get(1).getStatus());
+        assertEquals(UserCreationResult.Status.CREATED, results.get(2).getStatus());
+        assertEquals(11L, results.get(2).getUser().getId());
+        assertEquals(UserCreationResult.Status.DUPLICATE_EMAIL, results.get(3).getStatus());
+        assertEquals("Email já está em uso: usado@example.com", results.get(3).getMessage());
+        assertEquals(UserCreationResult.Status.DUPLICATE_EMAIL, results.get(4).getStatus());
+        verify(userRepository).findExistingEmails(
+                argThat(emails -> emails.size() == 3 && emails.contains("maria@example.com")));
+        verify(userRepository).saveAll(argThat(users -> users.size() == 2));
+    }
+
+    @Test
+    void shouldRecheckEmailsWhenBatchHitsEmailConstraint() {
+        LocalDateTime now = LocalDateTime.now();
+        when(userRepository.findExistingEmails(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of("maria@example.com"));
+        when(userRepository.saveAll(anyList()))
+                .thenThrow(new DuplicateEmailException(null))
+                .thenReturn(List.of(new User(10L, "João", "joao@example.com", now, now)));
+
+        List<UserCreationResult> results = userService.createUsers(List.of(
+                new NewUser("João", "joao@example.com"),
+                new NewUser("Maria", "maria@example.com")));
+
+        assertEquals(UserCreationResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getUser().getId());
+        assertEquals(UserCreationResult.Status.DUPLICATE_EMAIL, results.get(1).getStatus());
+        assertEquals("Email já está em uso: maria@example.com", results.get(1).getMessage());
+        verify(userRepository).saveAll(argThat(users -> users.size() == 1));
+    }
+
+    @Test
+    void shouldGiveUpWhenBatchKeepsHittingEmailConstraint() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(userRepository.saveAll(anyList())).thenThrow(new DuplicateEmailException(null));
+
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.createUsers(List.of(new NewUser("João", "joao@example.com"))));
+
+        verify(userRepository, times(UserServiceImpl.MAX_INSERT_ATTEMPTS)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldNotInsertWhenNoUserInBatchIsValid() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("joao@example.com"));
+
+        List<UserCreationResult> results = userService.createUsers(List.of(
+                new NewUser("João", "joao@example.com"),
+                new NewUser("Sem email", "invalido")));
+
+        assertEquals(UserCreationResult.Status.DUPLICATE_EMAIL, results.get(0).getStatus());
+        assertEquals(UserCreationResult.Status.INVALID, results.get(1).getStatus());
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatch() {
+        List<NewUser> oversized = new ArrayList<>();
+        for (int i = 0; i <= UserServiceImpl.MAX_BATCH_SIZE; i++) {
+            oversized.add(new NewUser("Usuário " + i, "user" + i + "@example.com"));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> userService.createUsers(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> userService.createUsers(oversized));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void shouldDeleteUserSuccessfully() {
         Long id = 1L;
-        User user = new User(id, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userRepository.deleteByIdReturningCount(id)).thenReturn(1);
 
         userService.deleteUser(id);
 
-        verify(userRepository).findById(id);
-        verify(userRepository).deleteById(id);
+        verify(userRepository).deleteByIdReturningCount(id);
+        verifyNoInteractions(userQueryPort);
     }
 
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentUser() {
         Long id = 1L;
 
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.deleteByIdReturningCount(id)).thenReturn(0);
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -221,7 +332,5 @@ class UserServiceImplTest {
         );
 
         assertEquals("Usuário não encontrado com ID: " + id, exception.getMessage());
-        verify(userRepository).findById(id);
-        verify(userRepository, never()).deleteById(id);
     }
 }
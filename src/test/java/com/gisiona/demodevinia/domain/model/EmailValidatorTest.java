@@ -0,0 +1,97 @@
+package com.gisiona.demodevinia.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailValidatorTest {
+
+    private static final Pattern REFERENCE = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private static final String ALPHABET = "aZk09+_.-@@..-- \t\nçéKİ ";
+
+    @Test
+    void shouldAcceptCommonAddresses() {
+        assertTrue(EmailValidator.isValid("joao@example.com"));
+        assertTrue(EmailValidator.isValid("joao.silva+tag@mail.example.com.br"));
+        assertTrue(EmailValidator.isValid("a@b.co"));
+        assertTrue(EmailValidator.isValid("-.@..cc"));
+    }
+
+    @Test
+    void shouldRejectMalformedAddresses() {
+        assertFalse(EmailValidator.isValid(""));
+        assertFalse(EmailValidator.isValid("@example.com"));
+        assertFalse(EmailValidator.isValid("joao@"));
+        assertFalse(EmailValidator.isValid("joao@.com"));
+        assertFalse(EmailValidator.isValid("joao@example.c"));
+        assertFalse(EmailValidator.isValid("joao@example.c0m"));
+        assertFalse(EmailValidator.isValid("joao@@example.com"));
+        assertFalse(EmailValidator.isValid("jo ao@example.com"));
+        assertFalse(EmailValidator.isValid("joão@example.com"));
+        assertFalse(EmailValidator.isValid("joao@example.com\n"));
+    }
+
+    @Test
+    void shouldAgreeWithRegexOnRandomStrings() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500_000; i++) {
+            StringBuilder candidate = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                candidate.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertAgrees(candidate.toString());
+        }
+    }
+
+    @Test
+    void shouldAgreeWithRegexOnMutatedAddresses() {
+        Random random = new Random(7);
+        String[] seeds = {"joao@example.com", "a.b+c@d-e.fg", "x@y.zz", "user_1@sub.domain.org"};
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder candidate = new StringBuilder(seeds[random.nextInt(seeds.length)]);
+            int mutations = 1 + random.nextInt(3);
+            for (int m = 0; m < mutations && candidate.length() > 0; m++) {
+                int position = random.nextInt(candidate.length());
+                char replacement = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                switch (random.nextInt(3)) {
+                    case 0 -> candidate.setCharAt(position, replacement);
+                    case 1 -> candidate.insert(position, replacement);
+                    default -> candidate.deleteCharAt(position);
+                }
+            }
+            assertAgrees(candidate.toString());
+        }
+    }
+
+    @Test
+    void shouldAgreeWithRegexAfterUserNormalization() {
+        Random random = new Random(99);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder candidate = new StringBuilder();
+            int length = 3 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                candidate.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            String raw = candidate.toString();
+            if (raw.trim().isEmpty()) {
+                continue;
+            }
+            String normalized = raw.trim().toLowerCase();
+            boolean expected = REFERENCE.matcher(normalized).matches();
+            if (expected) {
+                assertEquals(normalized, new User(1L, "Nome", raw, null, null).getEmail());
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> new User(1L, "Nome", raw, null, null), raw);
+            }
+        }
+    }
+
+    private static void assertAgrees(String candidate) {
+        assertEquals(REFERENCE.matcher(candidate).matches(), EmailValidator.isValid(candidate),
+                () -> "disagreement on \"" + candidate + "\"");
+    }
+}
@@ -112,6 +112,24 @@ class UserTest {
         assertEquals(user.getUpdatedAt(), userWithNewId.getUpdatedAt());
     }
 
+    @Test
+    void shouldRehydrateWithoutNormalizingStoredValues() {
+        LocalDateTime now = LocalDateTime.now();
+        User user = User.rehydrate(1L, " João ", "Legacy@Example", now, now, 3L);
+
+        assertEquals(" João ", user.getName());
+        assertEquals("Legacy@Example", user.getEmail());
+        assertEquals(3L, user.getVersion());
+    }
+
+    @Test
+    void shouldValidateWhenUpdatingRehydratedUser() {
+        LocalDateTime now = LocalDateTime.now();
+        User user = User.rehydrate(1L, "João", "joao@example.com", now, now, 0L);
+
+        assertThrows(IllegalArgumentException.class, () -> user.update("João", "invalid-email"));
+    }
+
     @Test
     void shouldImplementEqualsAndHashCodeCorrectly() {
         LocalDateTime now = LocalDateTime.now();
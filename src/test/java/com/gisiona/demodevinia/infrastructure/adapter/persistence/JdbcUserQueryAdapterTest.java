@@ -0,0 +1,104 @@
+package com.gisiona.demodevinia.infrastructure.adapter.persistence;
+
+import com.gisiona.demodevinia.domain.model.UserView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcUserQueryAdapterTest {
+
+    private final LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcUserQueryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) NOT NULL UNIQUE, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP NOT NULL, version BIGINT NOT NULL)");
+        adapter = new JdbcUserQueryAdapter(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldFindUserByIdWithAllColumns() {
+        insert(1L, "João", "joao@example.com");
+        jdbcTemplate.update("UPDATE users SET version = 3, updated_at = ? WHERE id = 1", createdAt.plusHours(1));
+
+        UserView user = adapter.findById(1L).orElseThrow();
+
+        assertEquals(1L, user.getId());
+        assertEquals("João", user.getName());
+        assertEquals("joao@example.com", user.getEmail());
+        assertEquals(createdAt, user.getCreatedAt());
+        assertEquals(createdAt.plusHours(1), user.getUpdatedAt());
+        assertEquals(3L, user.getVersion());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenUserIsMissing() {
+        assertTrue(adapter.findById(1L).isEmpty());
+        assertTrue(adapter.findByEmail("joao@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldFindUserByEmail() {
+        insert(1L, "João", "joao@example.com");
+        insert(2L, "Maria", "maria@example.com");
+
+        assertEquals(2L, adapter.findByEmail("maria@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    void shouldFindPageAfterGivenId() {
+        for (long id = 1; id <= 5; id++) {
+            insert(id, "Usuário " + id, "user" + id + "@example.com");
+        }
+
+        List<UserView> firstPage = adapter.findPage(null, 2);
+        List<UserView> nextPage = adapter.findPage(2L, 10);
+
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(UserView::getId).toList());
+        assertEquals(List.of(3L, 4L, 5L), nextPage.stream().map(UserView::getId).toList());
+    }
+
+    @Test
+    void shouldStreamAllUsersInIdOrder() {
+        int total = UserJpaRepository.STREAM_FETCH_SIZE + 1;
+        for (long id = total; id >= 1; id--) {
+            insert(id, "Usuário " + id, "user" + id + "@example.com");
+        }
+
+        List<Long> ids = new ArrayList<>();
+        adapter.forEach(user -> ids.add(user.getId()));
+
+        assertEquals(total, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals((long) total, ids.get(total - 1));
+    }
+
+    private void insert(long id, String name, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, 0)",
+                id, name, email, createdAt, createdAt);
+    }
+}
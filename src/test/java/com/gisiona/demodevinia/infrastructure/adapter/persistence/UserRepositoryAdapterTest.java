@@ -1,19 +1,24 @@
 package com.gisiona.demodevinia.infrastructure.adapter.persistence;
 
+import com.gisiona.demodevinia.domain.exception.ConcurrentUpdateException;
+import com.gisiona.demodevinia.domain.exception.DuplicateEmailException;
 import com.gisiona.demodevinia.domain.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,125 +41,132 @@ class UserRepositoryAdapterTest {
         UserEntity savedEntity = new UserEntity("João", "joao@example.com", now, now);
         savedEntity.setId(1L);
 
-        when(userJpaRepository.save(any(UserEntity.class))).thenReturn(savedEntity);
+        when(userJpaRepository.saveAndFlush(any(UserEntity.class))).thenReturn(savedEntity);
 
         User result = userRepositoryAdapter.save(user);
 
         assertEquals(1L, result.getId());
         assertEquals("João", result.getName());
         assertEquals("joao@example.com", result.getEmail());
-        verify(userJpaRepository).save(any(UserEntity.class));
+        verify(userJpaRepository).saveAndFlush(any(UserEntity.class));
     }
 
     @Test
-    void shouldFindUserByIdSuccessfully() {
-        Long id = 1L;
+    void shouldSaveAllUsersInOneCall() {
         LocalDateTime now = LocalDateTime.now();
-        UserEntity entity = new UserEntity("João", "joao@example.com", now, now);
-        entity.setId(id);
+        UserEntity first = new UserEntity("João", "joao@example.com", now, now);
+        first.setId(1L);
+        UserEntity second = new UserEntity("Maria", "maria@example.com", now, now);
+        second.setId(2L);
 
-        when(userJpaRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(userJpaRepository.saveAllAndFlush(anyList())).thenReturn(List.of(first, second));
 
-        Optional<User> result = userRepositoryAdapter.findById(id);
+        List<User> result = userRepositoryAdapter.saveAll(List.of(
+                User.create("João", "joao@example.com"),
+                User.create("Maria", "maria@example.com")));
 
-        assertTrue(result.isPresent());
-        assertEquals(id, result.get().getId());
-        assertEquals("João", result.get().getName());
-        assertEquals("joao@example.com", result.get().getEmail());
-        verify(userJpaRepository).findById(id);
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(2L, result.get(1).getId());
+        verify(userJpaRepository).saveAllAndFlush(argThat(entities -> ((List<UserEntity>) entities).size() == 2));
     }
 
     @Test
-    void shouldReturnEmptyWhenUserNotFoundById() {
-        Long id = 1L;
-
-        when(userJpaRepository.findById(id)).thenReturn(Optional.empty());
-
-        Optional<User> result = userRepositoryAdapter.findById(id);
+    void shouldSkipQueryWhenNoEmailsToCheck() {
+        assertTrue(userRepositoryAdapter.findExistingEmails(List.of()).isEmpty());
 
-        assertFalse(result.isPresent());
-        verify(userJpaRepository).findById(id);
+        verifyNoInteractions(userJpaRepository);
     }
 
     @Test
-    void shouldFindUserByEmailSuccessfully() {
-        String email = "joao@example.com";
-        LocalDateTime now = LocalDateTime.now();
-        UserEntity entity = new UserEntity("João", email, now, now);
-        entity.setId(1L);
-
-        when(userJpaRepository.findByEmail(email)).thenReturn(Optional.of(entity));
+    void shouldTranslateEmailConstraintViolation() {
+        ConstraintViolationException violation = new ConstraintViolationException("duplicate", new SQLException("23505"),
+                "PUBLIC.UK_USERS_EMAIL_INDEX_4");
+        when(userJpaRepository.saveAndFlush(any(UserEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
 
-        Optional<User> result = userRepositoryAdapter.findByEmail(email);
+        DuplicateEmailException exception = assertThrows(DuplicateEmailException.class,
+                () -> userRepositoryAdapter.save(User.create("João", "joao@example.com")));
 
-        assertTrue(result.isPresent());
-        assertEquals(1L, result.get().getId());
-        assertEquals("João", result.get().getName());
-        assertEquals(email, result.get().getEmail());
-        verify(userJpaRepository).findByEmail(email);
+        assertEquals("Email já está em uso: joao@example.com", exception.getMessage());
     }
 
     @Test
-    void shouldReturnEmptyWhenUserNotFoundByEmail() {
-        String email = "joao@example.com";
+    void shouldTranslateEmailConstraintViolationInBatch() {
+        ConstraintViolationException violation = new ConstraintViolationException("duplicate", new SQLException("23505"),
+                "PUBLIC.UK_USERS_EMAIL_INDEX_4");
+        when(userJpaRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+
+        assertThrows(DuplicateEmailException.class, () -> userRepositoryAdapter.saveAll(List.of(
+                User.create("João", "joao@example.com"),
+                User.create("Maria", "maria@example.com"))));
+    }
 
-        when(userJpaRepository.findByEmail(email)).thenReturn(Optional.empty());
+    @Test
+    void shouldRethrowOtherIntegrityViolations() {
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("value too long",
+                new ConstraintViolationException("too long", new SQLException("22001"), null));
+        when(userJpaRepository.saveAndFlush(any(UserEntity.class))).thenThrow(failure);
 
-        Optional<User> result = userRepositoryAdapter.findByEmail(email);
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepositoryAdapter.save(User.create("João", "joao@example.com")));
 
-        assertFalse(result.isPresent());
-        verify(userJpaRepository).findByEmail(email);
+        assertSame(failure, exception);
     }
 
     @Test
-    void shouldFindAllUsersSuccessfully() {
+    void shouldUpdateWithSingleStatementAndReadBackRow() {
         LocalDateTime now = LocalDateTime.now();
-        UserEntity entity1 = new UserEntity("João", "joao@example.com", now, now);
-        entity1.setId(1L);
-        UserEntity entity2 = new UserEntity("Maria", "maria@example.com", now, now);
-        entity2.setId(2L);
-        List<UserEntity> entities = Arrays.asList(entity1, entity2);
+        User changes = User.forUpdate(1L, "João Silva", "joao.silva@example.com", null);
+        UserEntity updated = new UserEntity("João Silva", "joao.silva@example.com", now, now);
+        updated.setId(1L);
+        updated.setVersion(3L);
 
-        when(userJpaRepository.findAll()).thenReturn(entities);
+        when(userJpaRepository.updateById(1L, "João Silva", "joao.silva@example.com", changes.getUpdatedAt(), null)).thenReturn(1);
+        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(updated));
 
-        List<User> result = userRepositoryAdapter.findAll();
+        User result = userRepositoryAdapter.update(changes).orElseThrow();
 
-        assertEquals(2, result.size());
-        assertEquals("João", result.get(0).getName());
-        assertEquals("Maria", result.get(1).getName());
-        verify(userJpaRepository).findAll();
+        assertEquals("joao.silva@example.com", result.getEmail());
+        assertEquals(3L, result.getVersion());
+        verify(userJpaRepository, never()).save(any(UserEntity.class));
     }
 
     @Test
-    void shouldDeleteUserById() {
-        Long id = 1L;
-
-        userRepositoryAdapter.deleteById(id);
+    void shouldReturnEmptyWhenUpdatedUserDoesNotExist() {
+        when(userJpaRepository.updateById(any(), any(), any(), any(), any())).thenReturn(0);
 
-        verify(userJpaRepository).deleteById(id);
+        assertTrue(userRepositoryAdapter.update(User.forUpdate(1L, "João", "joao@example.com", null)).isEmpty());
+        verify(userJpaRepository, never()).existsById(any());
     }
 
     @Test
-    void shouldCheckIfUserExistsByEmail() {
-        String email = "joao@example.com";
+    void shouldReportConflictWhenVersionDoesNotMatch() {
+        when(userJpaRepository.updateById(any(), any(), any(), any(), any())).thenReturn(0);
+        when(userJpaRepository.existsById(1L)).thenReturn(true);
 
-        when(userJpaRepository.existsByEmail(email)).thenReturn(true);
+        assertThrows(ConcurrentUpdateException.class,
+                () -> userRepositoryAdapter.update(User.forUpdate(1L, "João", "joao@example.com", 2L)));
+    }
 
-        boolean result = userRepositoryAdapter.existsByEmail(email);
+    @Test
+    void shouldDeleteUserById() {
+        Long id = 1L;
 
-        assertTrue(result);
-        verify(userJpaRepository).existsByEmail(email);
+        when(userJpaRepository.deleteByIdReturningCount(id)).thenReturn(1);
+
+        assertEquals(1, userRepositoryAdapter.deleteByIdReturningCount(id));
+        verify(userJpaRepository, never()).findById(any());
+        verify(userJpaRepository, never()).deleteById(any());
     }
 
     @Test
-    void shouldReturnFalseWhenUserDoesNotExistByEmail() {
-        String email = "joao@example.com";
-
-        when(userJpaRepository.existsByEmail(email)).thenReturn(false);
+    void shouldFindExistingEmailsInOneQuery() {
+        when(userJpaRepository.findEmailsIn(List.of("joao@example.com", "novo@example.com"))).thenReturn(List.of("joao@example.com"));
 
-        boolean result = userRepositoryAdapter.existsByEmail(email);
+        List<String> existing = userRepositoryAdapter.findExistingEmails(List.of("joao@example.com", "novo@example.com"));
 
-        assertFalse(result);
-        verify(userJpaRepository).existsByEmail(email);
+        assertEquals(List.of("joao@example.com"), existing);
     }
 }
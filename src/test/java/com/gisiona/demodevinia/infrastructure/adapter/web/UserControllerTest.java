@@ -1,25 +1,36 @@
 package com.gisiona.demodevinia.infrastructure.adapter.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gisiona.demodevinia.domain.exception.ConcurrentUpdateException;
 import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserCreationResult;
+import com.gisiona.demodevinia.domain.model.UserView;
 import com.gisiona.demodevinia.domain.port.UserService;
 import com.gisiona.demodevinia.infrastructure.adapter.web.dto.CreateUserRequest;
 import com.gisiona.demodevinia.infrastructure.adapter.web.dto.UpdateUserRequest;
+import com.gisiona.demodevinia.infrastructure.concurrency.ConcurrencyLimitInterceptor;
 import com.gisiona.demodevinia.infrastructure.ratelimit.RateLimitInterceptor;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,9 +47,18 @@ class UserControllerTest {
     @MockBean
     private RateLimitInterceptor rateLimitInterceptor;
 
+    @MockBean
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void letRequestsThroughInterceptors() throws Exception {
+        when(rateLimitInterceptor.preHandle(any(), any(), any())).thenReturn(true);
+        when(concurrencyLimitInterceptor.preHandle(any(), any(), any())).thenReturn(true);
+    }
+
     @Test
     void shouldCreateUserSuccessfully() throws Exception {
         CreateUserRequest request = new CreateUserRequest("João Silva", "joao@example.com");
@@ -67,6 +87,29 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.errors.email").exists());
     }
 
+    @Test
+    void shouldReportResultPerItemWhenCreatingBatch() throws Exception {
+        List<CreateUserRequest> requests = List.of(
+                new CreateUserRequest("João Silva", "joao@example.com"),
+                new CreateUserRequest("Maria", "usado@example.com"));
+        User user = new User(1L, "João Silva", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
+
+        when(userService.createUsers(anyList())).thenReturn(List.of(
+                UserCreationResult.created(user),
+                UserCreationResult.duplicateEmail("Email já está em uso: usado@example.com")));
+
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].user.id").value(1))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("DUPLICATE_EMAIL"))
+                .andExpect(jsonPath("$[1].message").value("Email já está em uso: usado@example.com"));
+    }
+
     @Test
     void shouldGetUserByIdSuccessfully() throws Exception {
         Long id = 1L;
@@ -108,19 +151,62 @@ class UserControllerTest {
 
     @Test
     void shouldGetAllUsersSuccessfully() throws Exception {
-        List<User> users = Arrays.asList(
+        List<UserView> users = Arrays.asList(
             new User(1L, "João Silva", "joao@example.com", LocalDateTime.now(), LocalDateTime.now()),
             new User(2L, "Maria Santos", "maria@example.com", LocalDateTime.now(), LocalDateTime.now())
         );
 
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getUsers(null, 100)).thenReturn(users);
 
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].name").value("João Silva"))
-                .andExpect(jsonPath("$[1].name").value("Maria Santos"));
+                .andExpect(jsonPath("$[1].name").value("Maria Santos"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenPageIsFull() throws Exception {
+        List<UserView> users = Arrays.asList(
+            new User(7L, "João Silva", "joao@example.com", LocalDateTime.now(), LocalDateTime.now()),
+            new User(9L, "Maria Santos", "maria@example.com", LocalDateTime.now(), LocalDateTime.now())
+        );
+
+        when(userService.getUsers(5L, 2)).thenReturn(users);
+
+        mockMvc.perform(get("/api/users").param("after", "5").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().string("X-Next-Cursor", "9"));
+    }
+
+    @Test
+    void shouldExportUsersAsNdjson() throws Exception {
+        List<User> users = Arrays.asList(
+            new User(1L, "João Silva", "joao@example.com", LocalDateTime.now(), LocalDateTime.now()),
+            new User(2L, "Maria Santos", "maria@example.com", LocalDateTime.now(), LocalDateTime.now())
+        );
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            users.forEach(action);
+            return null;
+        }).when(userService).exportUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("João Silva", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("maria@example.com", objectMapper.readTree(lines[1]).get("email").asText());
     }
 
     @Test
@@ -129,7 +215,7 @@ class UserControllerTest {
         UpdateUserRequest request = new UpdateUserRequest("João Silva Updated", "joao.updated@example.com");
         User updatedUser = new User(id, "João Silva Updated", "joao.updated@example.com", LocalDateTime.now(), LocalDateTime.now());
 
-        when(userService.updateUser(eq(id), eq("João Silva Updated"), eq("joao.updated@example.com"))).thenReturn(updatedUser);
+        when(userService.updateUser(eq(id), eq("João Silva Updated"), eq("joao.updated@example.com"), isNull())).thenReturn(updatedUser);
 
         mockMvc.perform(put("/api/users/{id}", id)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -140,6 +226,20 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value("joao.updated@example.com"));
     }
 
+    @Test
+    void shouldReturnConflictWhenVersionIsStale() throws Exception {
+        UpdateUserRequest request = new UpdateUserRequest("João", "joao@example.com");
+        request.setVersion(1L);
+
+        when(userService.updateUser(1L, "João", "joao@example.com", 1L)).thenThrow(new ConcurrentUpdateException(1L));
+
+        mockMvc.perform(put("/api/users/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Usuário foi alterado por outra requisição: 1"));
+    }
+
     @Test
     void shouldReturnBadRequestWhenUpdateUserWithInvalidData() throws Exception {
         Long id = 1L;
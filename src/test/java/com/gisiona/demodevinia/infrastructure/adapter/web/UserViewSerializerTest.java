@@ -0,0 +1,47 @@
+package com.gisiona.demodevinia.infrastructure.adapter.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.model.UserView;
+import com.gisiona.demodevinia.infrastructure.adapter.web.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserViewSerializerTest {
+
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new SimpleModule().addSerializer(new UserViewSerializer()))
+            .build();
+
+    @Test
+    void shouldWriteSameJsonAsBeanSerialization() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000);
+        UserResponse response = new UserResponse(7L, "João \"Silva\"", "joao@example.com", createdAt, createdAt.plusDays(1), 3L);
+
+        assertEquals(beanMapper.writeValueAsString(response), mapper.writeValueAsString(response));
+    }
+
+    @Test
+    void shouldWriteNullFields() throws Exception {
+        UserResponse response = new UserResponse(null, "João", "joao@example.com", null, null, null);
+
+        assertEquals(beanMapper.writeValueAsString(response), mapper.writeValueAsString(response));
+    }
+
+    @Test
+    void shouldSerializeDomainUserLikeItsResponse() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 10, 0);
+        User user = new User(1L, "Maria", "maria@example.com", now, now, 0L);
+
+        assertEquals(beanMapper.writeValueAsString(List.of(UserResponse.from(user))),
+                mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, UserView.class))
+                        .writeValueAsString(List.of(user)));
+    }
+}
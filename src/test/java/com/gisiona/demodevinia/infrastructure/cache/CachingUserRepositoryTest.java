@@ -0,0 +1,215 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.port.UserQueryPort;
+import com.gisiona.demodevinia.domain.port.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingUserRepositoryTest {
+
+    @Mock
+    private UserRepository delegate;
+
+    @Mock
+    private UserQueryPort queries;
+
+    private CachingUserRepository repository;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingUserRepository(delegate, queries, 100, Duration.ofMinutes(10));
+        user = new User(1L, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldLoadUserByIdOnlyOnce() {
+        when(queries.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(user, repository.findById(1L).orElseThrow());
+        assertEquals(user, repository.findById(1L).orElseThrow());
+
+        verify(queries, times(1)).findById(1L);
+    }
+
+    @Test
+    void shouldNotCacheMissingUsers() {
+        when(queries.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(repository.findById(2L).isEmpty());
+        assertTrue(repository.findById(2L).isEmpty());
+
+        verify(queries, times(2)).findById(2L);
+        assertEquals(0, repository.cachedUsers());
+    }
+
+    @Test
+    void shouldServeEmailLookupFromUserLoadedById() {
+        when(queries.findById(1L)).thenReturn(Optional.of(user));
+
+        repository.findById(1L);
+
+        assertEquals(user, repository.findByEmail("joao@example.com").orElseThrow());
+        verify(queries, never()).findByEmail(any());
+    }
+
+    @Test
+    void shouldServeIdLookupFromUserLoadedByEmail() {
+        when(queries.findByEmail("joao@example.com")).thenReturn(Optional.of(user));
+        when(queries.findById(1L)).thenReturn(Optional.of(user));
+
+        repository.findByEmail("joao@example.com");
+
+        assertEquals(user, repository.findById(1L).orElseThrow());
+        verify(queries, times(1)).findById(1L);
+    }
+
+    @Test
+    void shouldNotCacheRowReadByEmailBeforeAnEviction() {
+        User renamed = new User(1L, "Maria", "joao@example.com", user.getCreatedAt(), LocalDateTime.now());
+        when(queries.findByEmail("joao@example.com")).thenAnswer(invocation -> {
+            // The update commits and its eviction runs while this read is in flight.
+            repository.invalidate(1L, "joao@example.com");
+            return Optional.of(user);
+        });
+        when(queries.findById(1L)).thenReturn(Optional.of(renamed));
+
+        assertEquals("Maria", repository.findByEmail("joao@example.com").orElseThrow().getName());
+        assertEquals("Maria", repository.findById(1L).orElseThrow().getName());
+        verify(queries, times(1)).findById(1L);
+    }
+
+    @Test
+    void shouldIgnoreCaseAndSurroundingSpacesInEmailLookups() {
+        when(queries.findById(1L)).thenReturn(Optional.of(user));
+
+        repository.findById(1L);
+
+        assertEquals(user, repository.findByEmail("Joao@Example.COM").orElseThrow());
+        assertEquals(user, repository.findByEmail(" joao@example.com ").orElseThrow());
+        verify(queries, never()).findByEmail(any());
+    }
+
+    @Test
+    void shouldEvictOldEmailWhenUserIsSaved() {
+        User renamed = new User(1L, "João", "novo@example.com", user.getCreatedAt(), LocalDateTime.now());
+        when(queries.findById(1L)).thenReturn(Optional.of(user)).thenReturn(Optional.of(renamed));
+        when(delegate.save(renamed)).thenReturn(renamed);
+        when(queries.findByEmail("joao@example.com")).thenReturn(Optional.empty());
+
+        repository.findById(1L);
+        repository.save(renamed);
+
+        assertTrue(repository.findByEmail("joao@example.com").isEmpty());
+        assertEquals("novo@example.com", repository.findById(1L).orElseThrow().getEmail());
+        verify(queries, times(2)).findById(1L);
+    }
+
+    @Test
+    void shouldEvictUserWhenDeleted() {
+        when(queries.findById(1L)).thenReturn(Optional.of(user)).thenReturn(Optional.empty());
+        when(queries.findByEmail("joao@example.com")).thenReturn(Optional.empty());
+        when(delegate.deleteByIdReturningCount(1L)).thenReturn(1);
+
+        repository.findById(1L);
+        repository.deleteByIdReturningCount(1L);
+
+        assertTrue(repository.findById(1L).isEmpty());
+        assertTrue(repository.findByEmail("joao@example.com").isEmpty());
+        verify(delegate).deleteByIdReturningCount(1L);
+    }
+
+    @Test
+    void shouldEvictAgainWhenTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(queries.findById(1L)).thenReturn(Optional.of(user));
+        when(delegate.save(user)).thenReturn(user);
+
+        repository.save(user);
+        repository.findById(1L);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals(0, repository.cachedUsers());
+    }
+
+    @Test
+    void shouldReloadEvictedUserThroughLoaderNotQueries() {
+        UserQueryPort loader = mock(UserQueryPort.class);
+        repository = new CachingUserRepository(delegate, queries, loader, 100, Duration.ofMinutes(10), null);
+        User renamed = new User(1L, "Maria", "joao@example.com", user.getCreatedAt(), LocalDateTime.now());
+        lenient().when(queries.findById(1L)).thenReturn(Optional.of(user));
+        when(loader.findById(1L)).thenReturn(Optional.of(user)).thenReturn(Optional.of(renamed));
+        when(delegate.save(renamed)).thenReturn(renamed);
+
+        repository.findById(1L);
+        repository.save(renamed);
+
+        assertEquals("Maria", repository.findById(1L).orElseThrow().getName());
+        verify(queries, never()).findById(any());
+    }
+
+    @Test
+    void shouldPublishUpdatesAndDeletesButNotInserts() {
+        InMemoryUserChangeLog changeLog = new InMemoryUserChangeLog();
+        repository = new CachingUserRepository(delegate, queries, 100, Duration.ofMinutes(10), changeLog);
+        User created = User.create("Maria", "maria@example.com");
+        when(delegate.save(created)).thenReturn(new User(2L, "Maria", "maria@example.com", LocalDateTime.now(), LocalDateTime.now()));
+        when(delegate.save(user)).thenReturn(user);
+        when(delegate.deleteByIdReturningCount(1L)).thenReturn(1);
+        when(delegate.deleteByIdReturningCount(9L)).thenReturn(0);
+
+        repository.save(created);
+        repository.save(user);
+        repository.deleteByIdReturningCount(1L);
+        repository.deleteByIdReturningCount(9L);
+
+        List<UserChange> changes = changeLog.readAfter(0, 10);
+        assertEquals(2, changes.size());
+        assertEquals(1L, changes.get(0).getUserId());
+        assertEquals("joao@example.com", changes.get(0).getEmail());
+        assertEquals(1L, changes.get(1).getUserId());
+        assertNull(changes.get(1).getEmail());
+    }
+
+    @Test
+    void shouldExposeHitAndMissMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        repository.bindTo(registry);
+        when(queries.findById(1L)).thenReturn(Optional.of(user));
+
+        repository.findById(1L);
+        repository.findById(1L);
+
+        FunctionCounter hits = registry.get("cache.gets").tags("cache", "users.by-id", "result", "hit").functionCounter();
+        FunctionCounter misses = registry.get("cache.gets").tags("cache", "users.by-id", "result", "miss").functionCounter();
+        assertEquals(1.0, hits.count());
+        assertEquals(1.0, misses.count());
+    }
+}
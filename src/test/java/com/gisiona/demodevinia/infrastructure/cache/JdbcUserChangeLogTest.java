@@ -0,0 +1,85 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcUserChangeLogTest {
+
+    private final Instant start = Instant.parse("2024-01-01T10:00:00Z");
+    private EmbeddedDatabase database;
+    private JdbcUserChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        changeLog = new JdbcUserChangeLog(new JdbcTemplate(database), Clock.fixed(start, ZoneOffset.UTC));
+        changeLog.initializeSchema();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldReadChangesInOrderAfterPosition() {
+        changeLog.append(1L, "joao@example.com");
+        changeLog.append(2L, null);
+        changeLog.append(3L, null);
+
+        List<UserChange> changes = changeLog.readAfter(1, 10);
+
+        assertEquals(2, changes.size());
+        assertEquals(2, changes.get(0).getPosition());
+        assertEquals(2L, changes.get(0).getUserId());
+        assertNull(changes.get(0).getEmail());
+        assertEquals(3L, changes.get(1).getUserId());
+        assertEquals(3, changeLog.latestPosition());
+    }
+
+    @Test
+    void shouldLimitRowsRead() {
+        changeLog.append(1L, "joao@example.com");
+        changeLog.append(2L, "maria@example.com");
+
+        List<UserChange> changes = changeLog.readAfter(0, 1);
+
+        assertEquals(1, changes.size());
+        assertEquals("joao@example.com", changes.get(0).getEmail());
+    }
+
+    @Test
+    void shouldReportZeroWhenLogIsEmpty() {
+        assertEquals(0, changeLog.latestPosition());
+    }
+
+    @Test
+    void shouldPurgeOldChanges() {
+        changeLog.append(1L, null);
+
+        assertEquals(0, changeLog.purgeBefore(start));
+        assertEquals(1, changeLog.purgeBefore(start.plus(Duration.ofSeconds(1))));
+        assertTrue(changeLog.readAfter(0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldCreateSchemaIdempotently() {
+        assertDoesNotThrow(changeLog::initializeSchema);
+    }
+}
@@ -0,0 +1,129 @@
+package com.gisiona.demodevinia.infrastructure.cache;
+
+import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.port.UserQueryPort;
+import com.gisiona.demodevinia.domain.port.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheInvalidatorTest {
+
+    @Mock
+    private UserRepository database;
+
+    @Mock
+    private UserQueryPort queries;
+
+    @Mock
+    private Clock clock;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final User user = new User(1L, "João", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.millis()).thenAnswer(invocation -> now.get());
+    }
+
+    @Test
+    void shouldEvictUserUpdatedOnAnotherNode() {
+        InMemoryUserChangeLog changeLog = new InMemoryUserChangeLog();
+        CachingUserRepository nodeA = new CachingUserRepository(database, queries, 100, Duration.ofMinutes(10), changeLog);
+        CachingUserRepository nodeB = new CachingUserRepository(database, queries, 100, Duration.ofMinutes(10), changeLog);
+        UserCacheInvalidator invalidatorB = new UserCacheInvalidator(changeLog, nodeB, Duration.ofSeconds(10), Duration.ofHours(1), clock);
+        User renamed = new User(1L, "João Silva", "joao@example.com", user.getCreatedAt(), LocalDateTime.now());
+
+        when(queries.findById(1L)).thenReturn(Optional.of(user)).thenReturn(Optional.of(renamed));
+        when(database.save(renamed)).thenReturn(renamed);
+
+        assertEquals("João", nodeB.findById(1L).orElseThrow().getName());
+        nodeA.save(renamed);
+        assertEquals("João", nodeB.findById(1L).orElseThrow().getName());
+
+        invalidatorB.poll();
+
+        assertEquals("João Silva", nodeB.findById(1L).orElseThrow().getName());
+        assertEquals(1, invalidatorB.cursor());
+    }
+
+    @Test
+    void shouldStartFromLatestPosition() {
+        InMemoryUserChangeLog changeLog = new InMemoryUserChangeLog();
+        changeLog.append(1L, null);
+        changeLog.append(2L, null);
+
+        UserCacheInvalidator invalidator = new UserCacheInvalidator(changeLog,
+                new CachingUserRepository(database, queries, 100, Duration.ofMinutes(10)), Duration.ofSeconds(10), Duration.ofHours(1), clock);
+
+        assertEquals(2, invalidator.cursor());
+    }
+
+    @Test
+    void shouldHoldCursorAtGapUntilTimeout() {
+        UserChangeLog changeLog = mock(UserChangeLog.class);
+        CachingUserRepository cache = spy(new CachingUserRepository(database, queries, 100, Duration.ofMinutes(10)));
+        when(changeLog.latestPosition()).thenReturn(0L);
+        List<UserChange> rows = List.of(new UserChange(1, 1L, null), new UserChange(3, 3L, null));
+        when(changeLog.readAfter(anyLong(), anyInt())).thenAnswer(invocation -> rows.stream()
+                .filter(change -> change.getPosition() > invocation.<Long>getArgument(0))
+                .toList());
+        UserCacheInvalidator invalidator = new UserCacheInvalidator(changeLog, cache, Duration.ofSeconds(10), Duration.ofHours(1), clock);
+
+        invalidator.poll();
+        assertEquals(1, invalidator.cursor());
+        verify(cache).invalidate(3L, null);
+
+        now.addAndGet(5_000);
+        invalidator.poll();
+        assertEquals(1, invalidator.cursor());
+
+        now.addAndGet(5_000);
+        invalidator.poll();
+        assertEquals(3, invalidator.cursor());
+    }
+
+    @Test
+    void shouldAdvanceWhenGapFillsIn() {
+        UserChangeLog changeLog = mock(UserChangeLog.class);
+        CachingUserRepository cache = new CachingUserRepository(database, queries, 100, Duration.ofMinutes(10));
+        when(changeLog.latestPosition()).thenReturn(0L);
+        when(changeLog.readAfter(anyLong(), anyInt()))
+                .thenReturn(List.of(new UserChange(2, 2L, null)))
+                .thenReturn(List.of(new UserChange(1, 1L, null), new UserChange(2, 2L, null)));
+        UserCacheInvalidator invalidator = new UserCacheInvalidator(changeLog, cache, Duration.ofSeconds(10), Duration.ofHours(1), clock);
+
+        invalidator.poll();
+        assertEquals(0, invalidator.cursor());
+
+        invalidator.poll();
+        assertEquals(2, invalidator.cursor());
+    }
+
+    @Test
+    void shouldKeepPollingWhenLogIsUnavailable() {
+        UserChangeLog changeLog = mock(UserChangeLog.class);
+        when(changeLog.latestPosition()).thenReturn(4L);
+        when(changeLog.readAfter(anyLong(), anyInt())).thenThrow(new IllegalStateException("down"));
+        UserCacheInvalidator invalidator = new UserCacheInvalidator(changeLog,
+                new CachingUserRepository(database, queries, 100, Duration.ofMinutes(10)), Duration.ofSeconds(10), Duration.ofHours(1), clock);
+
+        assertDoesNotThrow(invalidator::poll);
+        assertEquals(4, invalidator.cursor());
+    }
+}
@@ -0,0 +1,73 @@
+package com.gisiona.demodevinia.infrastructure.concurrency;
+
+import com.gisiona.demodevinia.infrastructure.config.ConcurrencyLimitProperties;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private GradientConcurrencyLimiter limiter;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        properties.setRetryAfterSeconds(3);
+        limiter = new GradientConcurrencyLimiter(properties);
+        interceptor = new ConcurrencyLimitInterceptor(limiter, properties);
+    }
+
+    @Test
+    void shouldReleaseSlotAfterCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals(1, limiter.getInflight());
+
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(0, limiter.getInflight());
+        assertNull(request.getAttribute(ConcurrencyLimitInterceptor.START_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldRejectWithServiceUnavailableWhenLimitReached() throws Exception {
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, null));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"status\":503"));
+        assertTrue(response.getContentAsString().contains("\"message\":\"Serviço sobrecarregado. Tente novamente mais tarde.\""));
+        assertTrue(response.getContentAsString().contains("\"timestamp\":\""));
+
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    void shouldReleaseSlotWhenAsyncHandlingStarts() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        assertEquals(0, limiter.getInflight());
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, null));
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(0, limiter.getInflight());
+    }
+}
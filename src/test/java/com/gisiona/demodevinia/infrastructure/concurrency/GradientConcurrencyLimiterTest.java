@@ -0,0 +1,98 @@
+package com.gisiona.demodevinia.infrastructure.concurrency;
+
+import com.gisiona.demodevinia.infrastructure.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimiterTest {
+
+    private ConcurrencyLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(50);
+    }
+
+    @Test
+    void shouldRejectOnceLimitIsReached() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(10, limiter.getInflight());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldShrinkLimitWhenLatencyRises() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(properties);
+        saturate(limiter, 100, TimeUnit.MILLISECONDS.toNanos(10));
+        int baseline = limiter.getLimit();
+
+        saturate(limiter, 2, TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertTrue(limiter.getLimit() < baseline);
+        assertTrue(limiter.getLimit() >= properties.getMinLimit());
+    }
+
+    @Test
+    void shouldGrowLimitWhileLatencyIsStable() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(properties);
+
+        saturate(limiter, 200, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(properties.getMaxLimit(), limiter.getLimit());
+    }
+
+    @Test
+    void shouldNotGrowLimitWhenMostlyIdle() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void shouldExposeLimitAsMetric() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        limiter.bindTo(registry);
+        limiter.tryAcquire();
+
+        assertEquals(10.0, registry.get("http.server.concurrency.limit").gauge().value());
+        assertEquals(1.0, registry.get("http.server.concurrency.inflight").gauge().value());
+        assertEquals(0.0, registry.get("http.server.concurrency.rejected").functionCounter().count());
+    }
+
+    private void saturate(GradientConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.gisiona.demodevinia.infrastructure.datasource;
+
+import com.gisiona.demodevinia.domain.model.User;
+import com.gisiona.demodevinia.domain.port.UserRepository;
+import com.gisiona.demodevinia.infrastructure.adapter.persistence.JdbcUserQueryAdapter;
+import com.gisiona.demodevinia.infrastructure.cache.CachingUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private ReplicaLagMonitor monitor;
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("primary");
+        replica = node("replica");
+        useRouting(replica);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplica() {
+        when(monitor.isReplicaUsable()).thenReturn(true);
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void shouldSendWritesToPrimary() {
+        lenient().when(monitor.isReplicaUsable()).thenReturn(true);
+
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenReplicaIsNotUsable() {
+        when(monitor.isReplicaUsable()).thenReturn(false);
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaRefusesConnection() throws Exception {
+        DataSource unreachable = mock(DataSource.class);
+        SQLException refused = new SQLException("connection refused");
+        when(unreachable.getConnection()).thenThrow(refused);
+        useRouting(unreachable);
+        when(monitor.isReplicaUsable()).thenReturn(true);
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+        verify(monitor).markUnavailable(refused);
+    }
+
+    @Test
+    void shouldNotTouchAnyDatabaseForEmptyTransaction() throws Exception {
+        DataSource unreachable = mock(DataSource.class);
+        useRouting(unreachable);
+
+        readOnly.executeWithoutResult(status -> { });
+
+        verify(unreachable, never()).getConnection();
+        verify(monitor, never()).markUnavailable(any());
+    }
+
+    @Test
+    void shouldNotCacheLaggingReplicaRowAfterWrite() {
+        when(monitor.isReplicaUsable()).thenReturn(true);
+        createUsers(primary, "João");
+        createUsers(replica, "João");
+        UserRepository writes = mock(UserRepository.class);
+        CachingUserRepository cache = new CachingUserRepository(writes,
+                new JdbcUserQueryAdapter(jdbcTemplate.getDataSource()), new JdbcUserQueryAdapter(primary),
+                100, Duration.ofMinutes(10), null);
+        User renamed = new User(1L, "Maria", "joao@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(writes.save(renamed)).thenAnswer(invocation -> {
+            new JdbcTemplate(primary).update("UPDATE users SET name = 'Maria' WHERE id = 1");
+            return renamed;
+        });
+        readOnly.execute(status -> cache.findById(1L));
+
+        readWrite.execute(status -> cache.save(renamed));
+
+        assertEquals("Maria", readOnly.execute(status -> cache.findById(1L)).orElseThrow().getName());
+        assertEquals("Maria", readOnly.execute(status -> cache.findById(1L)).orElseThrow().getName());
+        assertEquals("João", readOnly.execute(status -> cache.findPage(null, 1)).get(0).getName());
+    }
+
+    private void useRouting(DataSource replicaDataSource) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replicaDataSource, monitor));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void createUsers(DataSource database, String name) {
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) NOT NULL UNIQUE, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP NOT NULL, version BIGINT NOT NULL)");
+        template.update("INSERT INTO users (id, name, email, created_at, updated_at, version) "
+                + "VALUES (1, ?, 'joao@example.com', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", name);
+    }
+
+    private static EmbeddedDatabase node(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,139 @@
+package com.gisiona.demodevinia.infrastructure.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private Clock clock;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private EmbeddedDatabase primaryDatabase;
+    private EmbeddedDatabase replicaDatabase;
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.millis()).thenAnswer(invocation -> now.get());
+        primaryDatabase = h2();
+        replicaDatabase = h2();
+        primary = new JdbcTemplate(primaryDatabase);
+        replica = new JdbcTemplate(replicaDatabase);
+        replica.execute(ReplicaLagMonitor.CREATE_TABLE);
+        monitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(5), clock);
+        monitor.initializeSchema();
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryDatabase.shutdown();
+        replicaDatabase.shutdown();
+    }
+
+    @Test
+    void shouldNotUseReplicaBeforeFirstCheck() {
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void shouldWriteHeartbeatOnPrimary() {
+        monitor.check();
+        now.addAndGet(1000);
+        monitor.check();
+
+        assertEquals(now.get(), primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class));
+    }
+
+    @Test
+    void shouldUseReplicaWhileLagIsWithinTolerance() {
+        monitor.check();
+        replicate();
+        now.addAndGet(3000);
+
+        monitor.check();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals(3000, monitor.getLagMillis());
+    }
+
+    @Test
+    void shouldStopUsingReplicaWhenItFallsBehind() {
+        monitor.check();
+        replicate();
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        now.addAndGet(6000);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(6000, monitor.getLagMillis());
+
+        replicate();
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void shouldNotUseReplicaWithoutHeartbeat() {
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void shouldNotUseReplicaWhenHeartbeatCannotBeRead() {
+        monitor.check();
+        replicate();
+        monitor.check();
+        replica.execute("DROP TABLE replica_heartbeat");
+
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void shouldStopUsingReplicaWhenMarkedUnavailable() {
+        monitor.check();
+        replicate();
+        monitor.check();
+
+        monitor.markUnavailable(new SQLException("connection refused"));
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    private void replicate() {
+        Long beat = primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+        replica.update("DELETE FROM replica_heartbeat");
+        replica.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+    }
+
+    private static EmbeddedDatabase h2() {
+        return new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.BucketLimits;
+import io.github.bucket4j.ConsumptionProbe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BucketSlabTest {
+
+    private final BucketLimits limits = new BucketLimits(20, 100);
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> now.get());
+    }
+
+    @Test
+    void shouldConsumeUntilMinuteWindowIsEmpty() {
+        BucketSlab slab = new BucketSlab(100, Duration.ofMinutes(10), clock);
+        ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+
+        ConsumptionProbe first = slab.tryConsume(key, limits, 1);
+        assertTrue(first.isConsumed());
+        assertEquals(19, first.getRemainingTokens());
+
+        assertTrue(slab.tryConsume(key, limits, 19).isConsumed());
+
+        now.addAndGet(15_000);
+        ConsumptionProbe rejected = slab.tryConsume(key, limits, 1);
+        assertFalse(rejected.isConsumed());
+        assertEquals(0, rejected.getRemainingTokens());
+        assertEquals(TimeUnit.SECONDS.toNanos(45), rejected.getNanosToWaitForRefill());
+    }
+
+    @Test
+    void shouldRefillMinuteWindowButKeepHourlyBudget() {
+        BucketSlab slab = new BucketSlab(100, Duration.ofHours(2), clock);
+        ClientKey key = ClientKeyResolver.parse("10.0.0.2");
+
+        for (int minute = 0; minute < 5; minute++) {
+            assertTrue(slab.tryConsume(key, limits, 20).isConsumed());
+            now.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        }
+
+        ConsumptionProbe rejected = slab.tryConsume(key, limits, 1);
+        assertFalse(rejected.isConsumed());
+        assertEquals(TimeUnit.MINUTES.toNanos(55), rejected.getNanosToWaitForRefill());
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(55));
+        assertTrue(slab.tryConsume(key, limits, 1).isConsumed());
+    }
+
+    @Test
+    void shouldStartOverAfterExpiry() {
+        BucketSlab slab = new BucketSlab(100, Duration.ofMinutes(10), clock);
+        ClientKey key = ClientKeyResolver.parse("10.0.0.3");
+
+        for (int minute = 0; minute < 5; minute++) {
+            slab.tryConsume(key, limits, 20);
+            now.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        }
+        assertEquals(0, slab.getAvailableTokens(key, limits));
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        assertEquals(20, slab.getAvailableTokens(key, limits));
+        assertEquals(19, slab.tryConsume(key, limits, 1).getRemainingTokens());
+    }
+
+    @Test
+    void shouldReportWindowResetForCostAboveCapacity() {
+        BucketSlab slab = new BucketSlab(100, Duration.ofMinutes(10), clock);
+
+        ConsumptionProbe aboveMinute = slab.tryConsume(ClientKeyResolver.parse("10.0.0.4"), limits, 21);
+        assertFalse(aboveMinute.isConsumed());
+        assertEquals(TimeUnit.MINUTES.toNanos(1), aboveMinute.getNanosToWaitForRefill());
+
+        ConsumptionProbe aboveHour = slab.tryConsume(ClientKeyResolver.parse("10.0.0.4"), limits, 101);
+        assertFalse(aboveHour.isConsumed());
+        assertEquals(TimeUnit.HOURS.toNanos(1), aboveHour.getNanosToWaitForRefill());
+    }
+
+    @Test
+    void shouldSeparatePolicies() {
+        BucketSlab slab = new BucketSlab(100, Duration.ofMinutes(10), clock);
+        ClientKey key = ClientKeyResolver.parse("10.0.0.5");
+
+        slab.tryConsume(key, limits, 20);
+
+        assertEquals(0, slab.getAvailableTokens(key, limits));
+        assertEquals(20, slab.getAvailableTokens(key.forPolicy(3), limits));
+        assertTrue(slab.tryConsume(key.forPolicy(3), limits, 1).isConsumed());
+        assertEquals(2, slab.size());
+    }
+
+    @Test
+    void shouldEvictEntriesNotRecentlyUsedWhenFull() {
+        BucketSlab slab = new BucketSlab(64, Duration.ofMinutes(10), clock);
+        ClientKey hot = ClientKeyResolver.parse("192.168.0.1");
+        slab.tryConsume(hot, limits, 20);
+
+        for (int i = 0; i < 1_000; i++) {
+            slab.tryConsume(ClientKey.ofIpv4(0x0A000000L + i), limits, 1);
+            slab.tryConsume(hot, limits, 1);
+        }
+
+        assertEquals(slab.capacity(), slab.size());
+        assertEquals(0, slab.getAvailableTokens(hot, limits));
+        assertEquals(20, slab.getAvailableTokens(ClientKey.ofIpv4(0x0A000000L), limits));
+    }
+
+    @Test
+    void shouldRejectPolicyIdsThatDoNotFit() {
+        BucketSlab slab = new BucketSlab(100, Duration.ofMinutes(10), clock);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> slab.tryConsume(ClientKeyResolver.parse("10.0.0.6").forPolicy(70_000), limits, 1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClientKeyResolverTest {
+
+    private final ClientKeyResolver resolver = new ClientKeyResolver();
+
+    @Test
+    void shouldPackIpv4IntoMappedIpv6() {
+        ClientKey key = ClientKeyResolver.parse("192.168.1.10");
+
+        assertTrue(key.isIpv4());
+        assertEquals(0L, key.getHigh());
+        assertEquals(0xFFFF_C0A8_010AL, key.getLow());
+        assertEquals("192.168.1.10", key.toString());
+    }
+
+    @Test
+    void shouldTreatIpv4MappedIpv6AsSameClient() {
+        assertEquals(ClientKeyResolver.parse("10.0.0.1"), ClientKeyResolver.parse("::ffff:10.0.0.1"));
+    }
+
+    @Test
+    void shouldParseCompressedIpv6() {
+        ClientKey key = ClientKeyResolver.parse("2001:db8::ff00:42:8329");
+
+        assertEquals(0x2001_0DB8_0000_0000L, key.getHigh());
+        assertEquals(0x0000_FF00_0042_8329L, key.getLow());
+        assertEquals(key, ClientKeyResolver.parse("2001:0DB8:0000:0000:0000:FF00:0042:8329"));
+    }
+
+    @Test
+    void shouldParseLoopbackAndUnspecifiedIpv6() {
+        assertEquals(ClientKey.ofIpv6(0L, 1L), ClientKeyResolver.parse("::1"));
+        assertEquals(ClientKey.ofIpv6(0L, 0L), ClientKeyResolver.parse("::"));
+        assertEquals(ClientKey.ofIpv6(0x0001_0000_0000_0000L, 0L), ClientKeyResolver.parse("1::"));
+    }
+
+    @Test
+    void shouldStripBracketsPortAndZone() {
+        assertEquals(ClientKeyResolver.parse("::1"), ClientKeyResolver.parse("[::1]:8080"));
+        assertEquals(ClientKeyResolver.parse("fe80::1"), ClientKeyResolver.parse("fe80::1%eth0"));
+        assertEquals(ClientKeyResolver.parse("10.1.2.3"), ClientKeyResolver.parse("10.1.2.3:443"));
+    }
+
+    @Test
+    void shouldHashValuesThatAreNotAddresses() {
+        ClientKey unknown = ClientKeyResolver.parse("unknown");
+
+        assertFalse(unknown.isIpv4());
+        assertEquals(unknown, ClientKeyResolver.parse(" unknown "));
+        assertNotEquals(unknown, ClientKeyResolver.parse("_hidden"));
+        assertNotEquals(ClientKeyResolver.parse("256.1.1.1"), ClientKeyResolver.parse("1.1.1.1"));
+        assertNotEquals(ClientKeyResolver.parse("1:::2"), ClientKeyResolver.parse("1::2"));
+    }
+
+    @Test
+    void shouldUseFirstForwardedAddress() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("X-Forwarded-For")).thenReturn("  203.0.113.7 , 10.0.0.1, 10.0.0.2");
+
+        assertEquals(ClientKeyResolver.parse("203.0.113.7"), resolver.resolve(request));
+        verify(request, never()).getRemoteAddr();
+    }
+
+    @Test
+    void shouldFallbackToRealIpAndRemoteAddr() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("X-Real-IP")).thenReturn("198.51.100.4");
+
+        assertEquals(ClientKeyResolver.parse("198.51.100.4"), resolver.resolve(request));
+
+        when(request.getHeader("X-Real-IP")).thenReturn(null);
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+
+        assertEquals(ClientKeyResolver.parse("127.0.0.1"), resolver.resolve(request));
+    }
+}
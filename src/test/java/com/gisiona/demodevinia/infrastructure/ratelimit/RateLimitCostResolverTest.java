@@ -0,0 +1,79 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitCostResolverTest {
+
+    private final SampleController controller = new SampleController();
+
+    @Test
+    void shouldReadCostFromHandlerMethodsOnRefresh() throws Exception {
+        HandlerMethod list = new HandlerMethod(controller, SampleController.class.getMethod("list"));
+        HandlerMethod get = new HandlerMethod(controller, SampleController.class.getMethod("get"));
+        RateLimitCostResolver resolver = refreshedResolver(list, get);
+
+        assertEquals(5, resolver.resolve(list));
+        assertEquals(RateLimitCostResolver.DEFAULT_COST, resolver.resolve(get));
+    }
+
+    @Test
+    void shouldApplyClassLevelCost() throws Exception {
+        ExpensiveController expensive = new ExpensiveController();
+        HandlerMethod export = new HandlerMethod(expensive, ExpensiveController.class.getMethod("export"));
+        HandlerMethod count = new HandlerMethod(expensive, ExpensiveController.class.getMethod("count"));
+        RateLimitCostResolver resolver = refreshedResolver(export, count);
+
+        assertEquals(10, resolver.resolve(export));
+        assertEquals(2, resolver.resolve(count));
+    }
+
+    @Test
+    void shouldUseDefaultCostForUnknownHandlers() throws Exception {
+        RateLimitCostResolver resolver = new RateLimitCostResolver();
+
+        assertEquals(RateLimitCostResolver.DEFAULT_COST, resolver.resolve(null));
+        assertEquals(RateLimitCostResolver.DEFAULT_COST,
+                resolver.resolve(new HandlerMethod(controller, SampleController.class.getMethod("list"))));
+    }
+
+    private RateLimitCostResolver refreshedResolver(HandlerMethod... handlerMethods) {
+        RequestMappingHandlerMapping mapping = mock(RequestMappingHandlerMapping.class);
+        Map<RequestMappingInfo, HandlerMethod> methods = new LinkedHashMap<>();
+        for (HandlerMethod handlerMethod : handlerMethods) {
+            methods.put(RequestMappingInfo.paths("/" + handlerMethod.getMethod().getName()).build(), handlerMethod);
+        }
+        when(mapping.getHandlerMethods()).thenReturn(methods);
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBeansOfType(RequestMappingHandlerMapping.class)).thenReturn(Map.of("mapping", mapping));
+
+        RateLimitCostResolver resolver = new RateLimitCostResolver();
+        resolver.onContextRefreshed(new ContextRefreshedEvent(context));
+        return resolver;
+    }
+
+    static class SampleController {
+        @RateLimitCost(5)
+        public void list() {}
+
+        public void get() {}
+    }
+
+    @RateLimitCost(2)
+    static class ExpensiveController {
+        @RateLimitCost(10)
+        public void export() {}
+
+        public void count() {}
+    }
+}
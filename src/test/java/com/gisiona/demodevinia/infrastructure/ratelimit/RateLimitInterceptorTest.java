@@ -1,5 +1,10 @@
 package com.gisiona.demodevinia.infrastructure.ratelimit;
 
+import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,11 +13,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,91 +37,166 @@ class RateLimitInterceptorTest {
     @Mock
     private HttpServletResponse response;
 
+    @Mock
+    private RateLimitRejectionLog rejectionLog;
+
     private RateLimitInterceptor interceptor;
 
     @BeforeEach
     void setUp() {
-        interceptor = new RateLimitInterceptor(rateLimitService);
+        interceptor = new RateLimitInterceptor(rateLimitService, new ClientKeyResolver(),
+                new RateLimitPolicyResolver(new RateLimitProperties()), new RateLimitCostResolver(), rejectionLog);
     }
 
     @Test
     void shouldAllowRequestWhenRateLimitNotExceeded() throws Exception {
-        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getRequestURI()).thenReturn("/api/users");
         when(request.getMethod()).thenReturn("GET");
-        when(rateLimitService.tryConsume(anyString())).thenReturn(true);
-        when(rateLimitService.getAvailableTokens(anyString())).thenReturn(10L);
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(rateLimitService.tryConsumeAndProbe(any(ClientKey.class), any(RateLimitPolicy.class), anyLong())).thenReturn(ConsumptionProbe.consumed(10L, 0L));
 
         boolean result = interceptor.preHandle(request, response, null);
 
         assertTrue(result);
         verify(response).setHeader("X-Rate-Limit-Remaining", "10");
+        verify(rateLimitService, never()).getAvailableTokens(any(ClientKey.class), any(RateLimitPolicy.class));
+        verify(rateLimitService, never()).tryConsume(any(ClientKey.class));
     }
 
     @Test
     void shouldRejectRequestWhenRateLimitExceeded() throws Exception {
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter printWriter = new PrintWriter(stringWriter);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
 
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getRequestURI()).thenReturn("/api/users");
         when(request.getMethod()).thenReturn("GET");
-        when(rateLimitService.tryConsume(anyString())).thenReturn(false);
-        when(response.getWriter()).thenReturn(printWriter);
+        when(rateLimitService.tryConsumeAndProbe(any(ClientKey.class), any(RateLimitPolicy.class), anyLong()))
+                .thenReturn(ConsumptionProbe.rejected(0L, TimeUnit.MILLISECONDS.toNanos(2500), 0L));
+        when(response.getOutputStream()).thenReturn(new CapturingOutputStream(body));
 
         boolean result = interceptor.preHandle(request, response, null);
 
         assertFalse(result);
         verify(response).setStatus(429);
+        verify(response).setHeader("X-Rate-Limit-Retry-After", "3");
         verify(response).setContentType("application/json; charset=UTF-8");
         verify(response).setCharacterEncoding("UTF-8");
+        verify(rejectionLog).record(ClientKeyResolver.parse("127.0.0.1"));
         
-        String responseBody = stringWriter.toString();
+        String responseBody = body.toString(StandardCharsets.UTF_8);
         assertTrue(responseBody.contains("Muitas requisições"));
+        verify(response).setContentLength(body.size());
+    }
+
+    @Test
+    void shouldNotRecordRejectionWhenRequestIsAllowed() throws Exception {
+        when(request.getRequestURI()).thenReturn("/api/users");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(rateLimitService.tryConsumeAndProbe(any(ClientKey.class), any(RateLimitPolicy.class), anyLong())).thenReturn(ConsumptionProbe.consumed(10L, 0L));
+
+        interceptor.preHandle(request, response, null);
+
+        verifyNoInteractions(rejectionLog);
+    }
+
+    @Test
+    void shouldNotChargeAsyncDispatchAgain() throws Exception {
+        when(request.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+
+        assertTrue(interceptor.preHandle(request, response, null));
+
+        verifyNoInteractions(rateLimitService, response);
     }
 
     @Test
     void shouldExtractIpFromXForwardedForHeader() throws Exception {
-        when(request.getHeader("X-Forwarded-For")).thenReturn("192.168.1.1, 10.0.0.1");
         when(request.getRequestURI()).thenReturn("/api/users");
         when(request.getMethod()).thenReturn("GET");
-        when(rateLimitService.tryConsume("rate_limit:192.168.1.1")).thenReturn(true);
-        when(rateLimitService.getAvailableTokens("rate_limit:192.168.1.1")).thenReturn(5L);
+        when(request.getHeader("X-Forwarded-For")).thenReturn("192.168.1.1, 10.0.0.1");
+        when(rateLimitService.tryConsumeAndProbe(eq(ClientKeyResolver.parse("192.168.1.1")), any(RateLimitPolicy.class), anyLong())).thenReturn(ConsumptionProbe.consumed(5L, 0L));
 
         boolean result = interceptor.preHandle(request, response, null);
 
         assertTrue(result);
-        verify(rateLimitService).tryConsume("rate_limit:192.168.1.1");
+        verify(rateLimitService).tryConsumeAndProbe(eq(ClientKeyResolver.parse("192.168.1.1")), any(RateLimitPolicy.class), anyLong());
         verify(response).setHeader("X-Rate-Limit-Remaining", "5");
     }
 
     @Test
     void shouldExtractIpFromXRealIpHeader() throws Exception {
-        when(request.getHeader("X-Forwarded-For")).thenReturn(null);
-        when(request.getHeader("X-Real-IP")).thenReturn("192.168.1.2");
         when(request.getRequestURI()).thenReturn("/api/users");
         when(request.getMethod()).thenReturn("GET");
-        when(rateLimitService.tryConsume("rate_limit:192.168.1.2")).thenReturn(true);
-        when(rateLimitService.getAvailableTokens("rate_limit:192.168.1.2")).thenReturn(8L);
+        when(request.getHeader("X-Forwarded-For")).thenReturn(null);
+        when(request.getHeader("X-Real-IP")).thenReturn("192.168.1.2");
+        when(rateLimitService.tryConsumeAndProbe(eq(ClientKeyResolver.parse("192.168.1.2")), any(RateLimitPolicy.class), anyLong())).thenReturn(ConsumptionProbe.consumed(8L, 0L));
 
         boolean result = interceptor.preHandle(request, response, null);
 
         assertTrue(result);
-        verify(rateLimitService).tryConsume("rate_limit:192.168.1.2");
+        verify(rateLimitService).tryConsumeAndProbe(eq(ClientKeyResolver.parse("192.168.1.2")), any(RateLimitPolicy.class), anyLong());
         verify(response).setHeader("X-Rate-Limit-Remaining", "8");
     }
 
     @Test
     void shouldFallbackToRemoteAddrWhenNoHeaders() throws Exception {
+        when(request.getRequestURI()).thenReturn("/api/users");
+        when(request.getMethod()).thenReturn("GET");
         when(request.getHeader("X-Forwarded-For")).thenReturn(null);
         when(request.getHeader("X-Real-IP")).thenReturn(null);
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(rateLimitService.tryConsume("rate_limit:127.0.0.1")).thenReturn(true);
-        when(rateLimitService.getAvailableTokens("rate_limit:127.0.0.1")).thenReturn(15L);
+        when(rateLimitService.tryConsumeAndProbe(eq(ClientKeyResolver.parse("127.0.0.1")), any(RateLimitPolicy.class), anyLong())).thenReturn(ConsumptionProbe.consumed(15L, 0L));
 
         boolean result = interceptor.preHandle(request, response, null);
 
         assertTrue(result);
-        verify(rateLimitService).tryConsume("rate_limit:127.0.0.1");
+        verify(rateLimitService).tryConsumeAndProbe(eq(ClientKeyResolver.parse("127.0.0.1")), any(RateLimitPolicy.class), anyLong());
+    }
+
+    @Test
+    void shouldConsumeFromPolicyMatchingEndpoint() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Policy listUsers = new RateLimitProperties.Policy();
+        listUsers.setName("list-users");
+        listUsers.setPath("/api/users");
+        listUsers.setMethods(List.of("GET"));
+        listUsers.setRequestsPerMinute(5);
+        properties.getPolicies().add(listUsers);
+        interceptor = new RateLimitInterceptor(rateLimitService, new ClientKeyResolver(), new RateLimitPolicyResolver(properties),
+                new RateLimitCostResolver(), rejectionLog);
+
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getRequestURI()).thenReturn("/api/users");
+        when(request.getMethod()).thenReturn("GET");
+        when(rateLimitService.tryConsumeAndProbe(any(ClientKey.class), any(RateLimitPolicy.class), anyLong()))
+                .thenReturn(ConsumptionProbe.consumed(4L, 0L));
+
+        interceptor.preHandle(request, response, null);
+
+        verify(rateLimitService).tryConsumeAndProbe(any(ClientKey.class),
+                argThat(policy -> "list-users".equals(policy.getName()) && policy.getLimits().getRequestsPerMinute() == 5),
+                eq(1L));
+    }
+
+    private static final class CapturingOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream target;
+
+        private CapturingOutputStream(ByteArrayOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) {
+            target.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
     }
 }
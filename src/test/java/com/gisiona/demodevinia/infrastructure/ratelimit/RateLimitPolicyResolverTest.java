@@ -0,0 +1,98 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitPolicyResolverTest {
+
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setRequestsPerMinute(20);
+        properties.setRequestsPerHour(100);
+        properties.getPolicies().add(policy("list-users", "/api/users", List.of("GET"), 5));
+        properties.getPolicies().add(policy("get-user", "/api/users/{id}", List.of("GET"), 60));
+        properties.getPolicies().add(policy("user-by-email", "/api/users/email/*", List.of(), 30));
+        properties.getPolicies().add(policy("user-writes", "/api/users/**", List.of("POST", "PUT", "DELETE"), 10));
+    }
+
+    @Test
+    void shouldResolveLiteralPathWithMethod() {
+        RateLimitPolicyResolver resolver = new RateLimitPolicyResolver(properties);
+
+        assertEquals("list-users", resolver.resolve("GET", "/api/users").getName());
+        assertEquals("list-users", resolver.resolve("GET", "/api/users/").getName());
+    }
+
+    @Test
+    void shouldPreferLiteralOverWildcardSegment() {
+        RateLimitPolicyResolver resolver = new RateLimitPolicyResolver(properties);
+
+        assertEquals("get-user", resolver.resolve("GET", "/api/users/42").getName());
+        assertEquals("user-by-email", resolver.resolve("GET", "/api/users/email/joao@example.com").getName());
+    }
+
+    @Test
+    void shouldMatchDecodedSegmentsWithoutMatrixParameters() {
+        RateLimitPolicyResolver resolver = new RateLimitPolicyResolver(properties);
+
+        assertEquals("list-users", resolver.resolve("GET", "/api/%75sers").getName());
+        assertEquals("list-users", resolver.resolve("GET", "/api/users;x=1").getName());
+        assertEquals("user-by-email", resolver.resolve("GET", "/api;v=2/users/email/joao%40example.com").getName());
+    }
+
+    @Test
+    void shouldMatchRemainderPatternForOtherMethods() {
+        RateLimitPolicyResolver resolver = new RateLimitPolicyResolver(properties);
+
+        assertEquals("user-writes", resolver.resolve("POST", "/api/users").getName());
+        assertEquals("user-writes", resolver.resolve("PUT", "/api/users/42").getName());
+        assertEquals("user-writes", resolver.resolve("DELETE", "/api/users/42/anything/else").getName());
+    }
+
+    @Test
+    void shouldFallbackToDefaultPolicy() {
+        RateLimitPolicyResolver resolver = new RateLimitPolicyResolver(properties);
+
+        RateLimitPolicy policy = resolver.resolve("GET", "/api/accounts");
+
+        assertSame(resolver.getDefaultPolicy(), policy);
+        assertEquals(RateLimitPolicy.DEFAULT_ID, policy.getId());
+        assertEquals(20, policy.getLimits().getRequestsPerMinute());
+        assertEquals("default", resolver.resolve("PATCH", "/api/users/42").getName());
+    }
+
+    @Test
+    void shouldInheritGlobalHourlyLimitWhenNotConfigured() {
+        RateLimitPolicyResolver resolver = new RateLimitPolicyResolver(properties);
+
+        RateLimitPolicy policy = resolver.resolve("GET", "/api/users");
+
+        assertEquals(5, policy.getLimits().getRequestsPerMinute());
+        assertEquals(100, policy.getLimits().getRequestsPerHour());
+        assertEquals(5, resolver.getPolicies().size());
+    }
+
+    @Test
+    void shouldRejectDoubleWildcardInTheMiddle() {
+        properties.getPolicies().add(policy("invalid", "/api/**/users", List.of(), 1));
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitPolicyResolver(properties));
+    }
+
+    private RateLimitProperties.Policy policy(String name, String path, List<String> methods, int requestsPerMinute) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setPath(path);
+        policy.setMethods(methods);
+        policy.setRequestsPerMinute(requestsPerMinute);
+        return policy;
+    }
+}
@@ -0,0 +1,86 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitRejectionLogTest {
+
+    private RateLimitRejectionLog rejectionLog;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRejectionLogMaxKeys(2);
+        rejectionLog = new RateLimitRejectionLog(properties);
+    }
+
+    @Test
+    void shouldTrackOneCounterPerClient() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+
+        for (int i = 0; i < 1_000; i++) {
+            rejectionLog.record(key);
+        }
+
+        assertEquals(1, rejectionLog.trackedKeys());
+    }
+
+    @Test
+    void shouldStopTrackingNewClientsAtTheCap() {
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.1"));
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.2"));
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.3"));
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.1"));
+
+        assertEquals(2, rejectionLog.trackedKeys());
+    }
+
+    @Test
+    void shouldResetCountersOnFlush() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+        rejectionLog.record(key);
+        rejectionLog.record(key);
+
+        rejectionLog.flush();
+
+        assertEquals(0, rejectionLog.rejections(key));
+        rejectionLog.record(key);
+        assertEquals(1, rejectionLog.rejections(key));
+    }
+
+    @Test
+    void shouldStopTrackingClientsAfterAnIdleInterval() {
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.1"));
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.2"));
+
+        rejectionLog.flush();
+        assertEquals(2, rejectionLog.trackedKeys());
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.2"));
+        rejectionLog.flush();
+
+        assertEquals(1, rejectionLog.trackedKeys());
+        rejectionLog.record(ClientKeyResolver.parse("10.0.0.3"));
+        assertEquals(2, rejectionLog.trackedKeys());
+    }
+
+    @Test
+    void shouldCreditIncrementsOnADroppedCounterBackToTheClient() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+        rejectionLog.record(key);
+        rejectionLog.flush();
+        LongAdder detached = rejectionLog.counter(key);
+        rejectionLog.flush();
+        assertEquals(0, rejectionLog.trackedKeys());
+
+        detached.increment();
+        rejectionLog.flush();
+
+        assertEquals(1, rejectionLog.trackedKeys());
+        assertEquals(0, detached.sum());
+    }
+}
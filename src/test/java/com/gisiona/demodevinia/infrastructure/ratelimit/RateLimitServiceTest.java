@@ -1,9 +1,8 @@
 package com.gisiona.demodevinia.infrastructure.ratelimit;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.gisiona.demodevinia.infrastructure.config.RateLimitProperties;
-import io.github.bucket4j.Bucket;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.BucketLimits;
+import io.github.bucket4j.ConsumptionProbe;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,44 +13,41 @@ import static org.junit.jupiter.api.Assertions.*;
 class RateLimitServiceTest {
 
     private RateLimitService rateLimitService;
-    private Cache<String, Bucket> cache;
+    private BucketSlab buckets;
     private RateLimitProperties rateLimitProperties;
 
     @BeforeEach
     void setUp() {
-        cache = Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(Duration.ofMinutes(1))
-                .build();
+        buckets = new BucketSlab(100, Duration.ofMinutes(1));
         
         rateLimitProperties = new RateLimitProperties();
         rateLimitProperties.setRequestsPerHour(100);
         rateLimitProperties.setRequestsPerMinute(20);
         
-        rateLimitService = new RateLimitService(cache, rateLimitProperties);
+        rateLimitService = new RateLimitService(buckets, new RateLimitPolicyResolver(rateLimitProperties));
     }
 
     @Test
-    void shouldCreateNewBucket() {
-        Bucket bucket = rateLimitService.createNewBucket();
-        
-        assertNotNull(bucket);
-        assertTrue(bucket.getAvailableTokens() > 0);
+    void shouldReportFullBucketForUnknownKeyWithoutStoringIt() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+
+        assertEquals(20, rateLimitService.getAvailableTokens(key));
+        assertEquals(0, buckets.size());
     }
 
     @Test
-    void shouldResolveBucketForKey() {
-        String key = "test-key";
-        
-        Bucket bucket1 = rateLimitService.resolveBucket(key);
-        Bucket bucket2 = rateLimitService.resolveBucket(key);
-        
-        assertSame(bucket1, bucket2);
+    void shouldStoreOneEntryPerKey() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+
+        rateLimitService.tryConsume(key);
+        rateLimitService.tryConsume(key);
+
+        assertEquals(1, buckets.size());
     }
 
     @Test
     void shouldConsumeTokensSuccessfully() {
-        String key = "test-consume";
+        ClientKey key = ClientKeyResolver.parse("10.0.0.2");
         
         assertTrue(rateLimitService.tryConsume(key));
         
@@ -61,7 +57,7 @@ class RateLimitServiceTest {
 
     @Test
     void shouldRejectWhenRateLimitExceeded() {
-        String key = "test-exceed";
+        ClientKey key = ClientKeyResolver.parse("10.0.0.3");
         
         for (int i = 0; i < 25; i++) {
             rateLimitService.tryConsume(key);
@@ -72,7 +68,7 @@ class RateLimitServiceTest {
 
     @Test
     void shouldTrackAvailableTokens() {
-        String key = "test-tokens";
+        ClientKey key = ClientKeyResolver.parse("10.0.0.4");
         
         long initialTokens = rateLimitService.getAvailableTokens(key);
         rateLimitService.tryConsume(key);
@@ -80,4 +76,65 @@ class RateLimitServiceTest {
         
         assertEquals(initialTokens - 1, tokensAfterConsume);
     }
+
+    @Test
+    void shouldReturnRemainingTokensWhenProbeConsumes() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.5");
+
+        ConsumptionProbe probe = rateLimitService.tryConsumeAndProbe(key);
+
+        assertTrue(probe.isConsumed());
+        assertEquals(19, probe.getRemainingTokens());
+    }
+
+    @Test
+    void shouldReturnTimeToRefillWhenProbeRejects() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.6");
+
+        for (int i = 0; i < 20; i++) {
+            rateLimitService.tryConsume(key);
+        }
+
+        ConsumptionProbe probe = rateLimitService.tryConsumeAndProbe(key);
+
+        assertFalse(probe.isConsumed());
+        assertEquals(0, probe.getRemainingTokens());
+        assertTrue(probe.getNanosToWaitForRefill() > 0);
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerPolicy() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.20");
+        RateLimitPolicy strict = new RateLimitPolicy(1, "strict", new BucketLimits(2, 100));
+
+        assertTrue(rateLimitService.tryConsumeAndProbe(key, strict).isConsumed());
+        assertTrue(rateLimitService.tryConsumeAndProbe(key, strict).isConsumed());
+        assertFalse(rateLimitService.tryConsumeAndProbe(key, strict).isConsumed());
+
+        assertTrue(rateLimitService.tryConsume(key));
+        assertEquals(19, rateLimitService.getAvailableTokens(key));
+    }
+
+    @Test
+    void shouldDrainBucketByRequestCost() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.21");
+        RateLimitPolicy policy = new RateLimitPolicy(RateLimitPolicy.DEFAULT_ID, "default", new BucketLimits(20, 100));
+
+        ConsumptionProbe probe = rateLimitService.tryConsumeAndProbe(key, policy, 15);
+
+        assertTrue(probe.isConsumed());
+        assertEquals(5, probe.getRemainingTokens());
+        assertFalse(rateLimitService.tryConsumeAndProbe(key, policy, 6).isConsumed());
+        assertTrue(rateLimitService.tryConsumeAndProbe(key, policy, 5).isConsumed());
+    }
+
+    @Test
+    void shouldConsumeCostFromTheGivenPolicy() {
+        ClientKey key = ClientKeyResolver.parse("10.0.0.22");
+        RateLimitPolicy strict = new RateLimitPolicy(1, "strict", new BucketLimits(10, 100));
+
+        assertTrue(rateLimitService.tryConsume(key, strict, 10));
+        assertFalse(rateLimitService.tryConsume(key, strict, 1));
+        assertEquals(20, rateLimitService.getAvailableTokens(key));
+    }
 }
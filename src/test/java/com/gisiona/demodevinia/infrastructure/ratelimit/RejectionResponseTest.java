@@ -0,0 +1,24 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RejectionResponseTest {
+
+    @Test
+    void shouldKeepSecondsInTimestampOnTheMinute() {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-18T12:30:00Z"), ZoneOffset.UTC);
+        RejectionResponse response = new RejectionResponse(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded", clock);
+
+        String body = new String(response.bytes(), StandardCharsets.UTF_8);
+
+        assertEquals("{\"status\":429,\"message\":\"Rate limit exceeded\",\"timestamp\":\"2026-10-18T12:30:00\"}", body);
+    }
+}
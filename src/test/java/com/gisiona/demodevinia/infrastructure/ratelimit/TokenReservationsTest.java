@@ -0,0 +1,197 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.BucketLimits;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.InMemoryRateLimitBucketStore;
+import com.gisiona.demodevinia.infrastructure.ratelimit.store.RateLimitBucketStore;
+import io.github.bucket4j.ConsumptionProbe;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenReservationsTest {
+
+    private final BucketLimits limits = new BucketLimits(20, 100);
+    private final ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+    private final BucketSlab fallback = new BucketSlab(100, Duration.ofMinutes(10));
+
+    @Test
+    void shouldHitStoreOncePerReservation() {
+        RateLimitBucketStore store = spy(new InMemoryRateLimitBucketStore());
+        TokenReservations reservations = new TokenReservations(store, fallback, 25, Duration.ofMinutes(1), 100);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(reservations.tryConsume(key, limits).isConsumed());
+        }
+
+        verify(store, times(2)).acquire(any(), any(), anyLong());
+    }
+
+    @Test
+    void shouldHoldLimitAcrossReplicas() {
+        InMemoryRateLimitBucketStore store = new InMemoryRateLimitBucketStore();
+        TokenReservations replicaA = new TokenReservations(store, fallback, 10, Duration.ofMinutes(1), 100);
+        TokenReservations replicaB = new TokenReservations(store, fallback, 10, Duration.ofMinutes(1), 100);
+
+        int admitted = 0;
+        for (int i = 0; i < 30; i++) {
+            TokenReservations replica = i % 2 == 0 ? replicaA : replicaB;
+            if (replica.tryConsume(key, limits).isConsumed()) {
+                admitted++;
+            }
+        }
+
+        assertEquals(20, admitted);
+    }
+
+    @Test
+    void shouldRejectLocallyUntilRefill() {
+        RateLimitBucketStore store = spy(new InMemoryRateLimitBucketStore());
+        TokenReservations reservations = new TokenReservations(store, fallback, 100, Duration.ofMinutes(1), 100);
+        reservations.tryConsume(key, limits);
+        for (int i = 0; i < 19; i++) {
+            reservations.tryConsume(key, limits);
+        }
+
+        ConsumptionProbe first = reservations.tryConsume(key, limits);
+        ConsumptionProbe second = reservations.tryConsume(key, limits);
+
+        assertFalse(first.isConsumed());
+        assertFalse(second.isConsumed());
+        assertTrue(second.getNanosToWaitForRefill() > 0);
+        verify(store, times(2)).acquire(any(), any(), anyLong());
+    }
+
+    @Test
+    void shouldRejectCostlyRequestLocallyUntilMissingTokensRefill() {
+        RateLimitBucketStore store = spy(new InMemoryRateLimitBucketStore());
+        TokenReservations reservations = new TokenReservations(store, fallback, 10, Duration.ofMinutes(1), 100);
+        for (int i = 0; i < 17; i++) {
+            assertTrue(reservations.tryConsume(key, limits).isConsumed());
+        }
+
+        ConsumptionProbe first = reservations.tryConsume(key, limits, 5);
+        ConsumptionProbe second = reservations.tryConsume(key, limits, 5);
+
+        assertFalse(first.isConsumed());
+        assertFalse(second.isConsumed());
+        assertTrue(first.getNanosToWaitForRefill() > 0);
+        verify(store, times(10)).acquire(any(), any(), anyLong());
+    }
+
+    @Test
+    void shouldLeaseAgainWhenWindowRollsOverBelowCost() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L, 0L, Duration.ofMinutes(1).toMillis());
+        RateLimitBucketStore store = spy(new InMemoryRateLimitBucketStore(clock));
+        TokenReservations reservations = new TokenReservations(store, fallback, 10, Duration.ofMinutes(5), 100);
+        reservations.tryConsume(key, limits, 2);
+        reservations.tryConsume(key, limits, 1);
+
+        ConsumptionProbe probe = reservations.tryConsume(key, limits, 5);
+
+        assertTrue(probe.isConsumed());
+        verify(store, times(4)).acquire(any(), any(), anyLong());
+    }
+
+    @Test
+    void shouldReturnUnusedTokensWhenLeaseIsReleased() {
+        InMemoryRateLimitBucketStore store = new InMemoryRateLimitBucketStore();
+        TokenReservations reservations = new TokenReservations(store, fallback, 50, Duration.ofMinutes(1), 100);
+        reservations.tryConsume(key, limits);
+
+        reservations.releaseAll();
+
+        assertEquals(19, store.acquire(key, limits, 20).getGranted());
+    }
+
+    @Test
+    void shouldReleaseExpiredLeaseAndLeaseAgain() throws Exception {
+        InMemoryRateLimitBucketStore store = spy(new InMemoryRateLimitBucketStore());
+        TokenReservations reservations = new TokenReservations(store, fallback, 50, Duration.ofMillis(50), 100);
+        reservations.tryConsume(key, limits);
+
+        Thread.sleep(200);
+        ConsumptionProbe probe = reservations.tryConsume(key, limits);
+
+        assertTrue(probe.isConsumed());
+        verify(store, timeout(1000)).release(eq(key), eq(limits), any(), eq(9L));
+        verify(store, times(2)).acquire(any(), any(), anyLong());
+    }
+
+    @Test
+    void shouldLeaseEnoughTokensForExpensiveRequests() {
+        InMemoryRateLimitBucketStore store = new InMemoryRateLimitBucketStore();
+        TokenReservations reservations = new TokenReservations(store, fallback, 10, Duration.ofMinutes(1), 100);
+
+        assertTrue(reservations.tryConsume(key, limits, 8).isConsumed());
+        assertTrue(reservations.tryConsume(key, limits, 12).isConsumed());
+        assertFalse(reservations.tryConsume(key, limits, 1).isConsumed());
+    }
+
+    @Test
+    void shouldRejectWhenCostExceedsWhatTheStoreHasLeft() {
+        InMemoryRateLimitBucketStore store = new InMemoryRateLimitBucketStore();
+        TokenReservations reservations = new TokenReservations(store, fallback, 10, Duration.ofMinutes(1), 100);
+        reservations.tryConsume(key, limits, 15);
+
+        ConsumptionProbe probe = reservations.tryConsume(key, limits, 10);
+
+        assertFalse(probe.isConsumed());
+        assertEquals(5, probe.getRemainingTokens());
+        assertTrue(reservations.tryConsume(key, limits, 5).isConsumed());
+    }
+
+    @Test
+    void shouldSizeLeasesFromThePolicyLimits() {
+        RateLimitBucketStore store = spy(new InMemoryRateLimitBucketStore());
+        TokenReservations replicaA = new TokenReservations(store, fallback, 10, Duration.ofMinutes(1), 100);
+        TokenReservations replicaB = new TokenReservations(store, fallback, 10, Duration.ofMinutes(1), 100);
+        BucketLimits generous = new BucketLimits(600, 6000);
+        ClientKey other = ClientKeyResolver.parse("10.0.0.2");
+
+        assertTrue(replicaA.tryConsume(key, limits).isConsumed());
+        ConsumptionProbe probe = replicaB.tryConsume(key, limits);
+        assertTrue(replicaA.tryConsume(other, generous).isConsumed());
+
+        assertTrue(probe.isConsumed());
+        assertEquals(17, probe.getRemainingTokens());
+        verify(store, times(2)).acquire(eq(key), eq(limits), eq(2L));
+        verify(store).acquire(eq(other), eq(generous), eq(60L));
+    }
+
+    @Test
+    void shouldReportLeasedAndSharedTokensAsAvailable() {
+        InMemoryRateLimitBucketStore store = new InMemoryRateLimitBucketStore();
+        TokenReservations replicaA = new TokenReservations(store, fallback, 25, Duration.ofMinutes(1), 100);
+        TokenReservations replicaB = new TokenReservations(store, fallback, 25, Duration.ofMinutes(1), 100);
+
+        assertTrue(replicaA.tryConsume(key, limits).isConsumed());
+        assertTrue(replicaB.tryConsume(key, limits, 3).isConsumed());
+
+        assertEquals(14, replicaA.getAvailableTokens(key, limits));
+        assertEquals(12, replicaB.getAvailableTokens(key, limits));
+    }
+
+    @Test
+    void shouldLimitLocallyWhenStoreFails() {
+        RateLimitBucketStore store = mock(RateLimitBucketStore.class);
+        when(store.acquire(any(), any(), anyLong())).thenThrow(new IllegalStateException("store down"));
+        TokenReservations reservations = new TokenReservations(store, fallback, 25, Duration.ofMinutes(1), 100);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(reservations.tryConsume(key, limits).isConsumed());
+        }
+        ConsumptionProbe probe = reservations.tryConsume(key, limits);
+
+        assertFalse(probe.isConsumed());
+        assertTrue(probe.getNanosToWaitForRefill() > 0);
+        assertEquals(0, fallback.getAvailableTokens(key, limits));
+    }
+}
@@ -0,0 +1,143 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.ClientKey;
+import com.gisiona.demodevinia.infrastructure.ratelimit.ClientKeyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimitBucketStoreTest {
+
+    private final BucketLimits limits = new BucketLimits(20, 100);
+    private final ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+    private MutableClock clock;
+    private InMemoryRateLimitBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+        store = new InMemoryRateLimitBucketStore(clock);
+    }
+
+    @Test
+    void shouldGrantRequestedTokensFromFullBucket() {
+        TokenGrant grant = store.acquire(key, limits, 5);
+
+        assertEquals(5, grant.getGranted());
+        assertEquals(15, grant.getRemainingTokens());
+    }
+
+    @Test
+    void shouldReadWithoutTakingTokensOrCreatingBucket() {
+        assertEquals(20, store.acquire(key, limits, 0).getRemainingTokens());
+        assertEquals(0, store.size());
+
+        store.acquire(key, limits, 5);
+
+        assertEquals(15, store.acquire(key, limits, 0).getRemainingTokens());
+        assertEquals(15, store.acquire(key, limits, 0).getRemainingTokens());
+    }
+
+    @Test
+    void shouldGrantPartiallyWhenBucketIsAlmostEmpty() {
+        store.acquire(key, limits, 18);
+
+        TokenGrant grant = store.acquire(key, limits, 5);
+
+        assertEquals(2, grant.getGranted());
+        assertEquals(0, grant.getRemainingTokens());
+        assertEquals(Duration.ofMinutes(1).toNanos(), grant.getNanosToWaitForRefill());
+    }
+
+    @Test
+    void shouldReportWaitForTokensMissingFromPartiallyFilledBucket() {
+        store.acquire(key, limits, 17);
+        clock.advance(Duration.ofSeconds(15));
+
+        TokenGrant grant = store.acquire(key, limits, 0);
+
+        assertEquals(3, grant.getRemainingTokens());
+        assertEquals(0, grant.getNanosToWaitForRefill(3));
+        assertEquals(Duration.ofSeconds(45).toNanos(), grant.getNanosToWaitForRefill(5));
+    }
+
+    @Test
+    void shouldRefillMinuteWindowButKeepHourlyBudget() {
+        store.acquire(key, limits, 20);
+        assertEquals(0, store.acquire(key, limits, 1).getGranted());
+
+        clock.advance(Duration.ofSeconds(61));
+        TokenGrant grant = store.acquire(key, limits, 20);
+
+        assertEquals(20, grant.getGranted());
+        assertEquals(0, grant.getRemainingTokens());
+        assertEquals(Duration.ofSeconds(59).toNanos(), grant.getNanosToWaitForRefill());
+    }
+
+    @Test
+    void shouldReportHourlyRefillWhenHourlyBudgetIsExhausted() {
+        for (int minute = 0; minute < 5; minute++) {
+            store.acquire(key, limits, 20);
+            clock.advance(Duration.ofMinutes(1));
+        }
+
+        TokenGrant grant = store.acquire(key, limits, 1);
+
+        assertEquals(0, grant.getGranted());
+        assertEquals(Duration.ofMinutes(55).toNanos(), grant.getNanosToWaitForRefill());
+    }
+
+    @Test
+    void shouldCreditReleasedTokensWithinSameWindow() {
+        TokenGrant grant = store.acquire(key, limits, 10);
+
+        store.release(key, limits, grant, 4);
+
+        assertEquals(14, store.acquire(key, limits, 20).getGranted());
+    }
+
+    @Test
+    void shouldIgnoreReleaseAfterWindowRefill() {
+        TokenGrant grant = store.acquire(key, limits, 10);
+        clock.advance(Duration.ofMinutes(1));
+        store.acquire(key, limits, 5);
+
+        store.release(key, limits, grant, 10);
+
+        TokenGrant after = store.acquire(key, limits, 20);
+        assertEquals(15, after.getGranted());
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.gisiona.demodevinia.infrastructure.ratelimit.store;
+
+import com.gisiona.demodevinia.infrastructure.ratelimit.ClientKey;
+import com.gisiona.demodevinia.infrastructure.ratelimit.ClientKeyResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcRateLimitBucketStoreTest {
+
+    private final BucketLimits limits = new BucketLimits(20, 100);
+    private final ClientKey key = ClientKeyResolver.parse("10.0.0.1");
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private InMemoryRateLimitBucketStoreTest.MutableClock clock;
+    private JdbcRateLimitBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        clock = new InMemoryRateLimitBucketStoreTest.MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+        store = new JdbcRateLimitBucketStore(jdbcTemplate, clock);
+        store.initializeSchema();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldInsertBucketOnFirstAcquire() {
+        TokenGrant grant = store.acquire(key, limits, 5);
+
+        assertEquals(5, grant.getGranted());
+        assertEquals(15, grant.getRemainingTokens());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_buckets", Integer.class));
+    }
+
+    @Test
+    void shouldReadUnknownBucketWithoutInsertingIt() {
+        TokenGrant grant = store.acquire(key, limits, 0);
+
+        assertEquals(0, grant.getGranted());
+        assertEquals(20, grant.getRemainingTokens());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_buckets", Integer.class));
+    }
+
+    @Test
+    void shouldShareBucketBetweenStoreInstances() {
+        JdbcRateLimitBucketStore otherReplica = new JdbcRateLimitBucketStore(jdbcTemplate, clock);
+
+        store.acquire(key, limits, 15);
+        TokenGrant grant = otherReplica.acquire(key, limits, 10);
+
+        assertEquals(5, grant.getGranted());
+        assertEquals(0, store.acquire(key, limits, 1).getGranted());
+    }
+
+    @Test
+    void shouldRefillAfterWindowElapses() {
+        store.acquire(key, limits, 20);
+
+        clock.advance(Duration.ofMinutes(1));
+
+        assertEquals(20, store.acquire(key, limits, 20).getGranted());
+    }
+
+    @Test
+    void shouldCreditReleasedTokensOnlyWithinSameWindow() {
+        TokenGrant grant = store.acquire(key, limits, 10);
+        store.release(key, limits, grant, 4);
+        assertEquals(14, store.acquire(key, limits, 20).getGranted());
+
+        TokenGrant stale = store.acquire(key, limits, 0);
+        clock.advance(Duration.ofMinutes(1));
+        store.acquire(key, limits, 5);
+        store.release(key, limits, stale, 10);
+
+        assertEquals(15, store.acquire(key, limits, 20).getGranted());
+    }
+
+    @Test
+    void shouldPurgeBucketsWhoseWindowsHaveElapsed() {
+        ClientKey active = ClientKeyResolver.parse("10.0.0.2");
+        store.acquire(key, limits, 20);
+        clock.advance(Duration.ofMinutes(30));
+        store.acquire(active, limits, 1);
+        clock.advance(Duration.ofMinutes(30));
+
+        store.purgeIdle();
+
+        assertEquals(List.of(99L), jdbcTemplate.queryForList("SELECT hour_tokens FROM rate_limit_buckets", Long.class));
+        assertEquals(20, store.acquire(key, limits, 20).getGranted());
+    }
+
+    @Test
+    void shouldNotOverGrantUnderConcurrentAcquires() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(() -> store.acquire(key, limits, 1).getGranted()));
+            }
+            long granted = 0;
+            for (Future<Long> future : futures) {
+                granted += future.get();
+            }
+            assertEquals(20, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
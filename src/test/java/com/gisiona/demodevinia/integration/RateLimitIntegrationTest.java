@@ -12,6 +12,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.net.URI;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,7 +24,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     "spring.datasource.url=jdbc:h2:mem:testdb-ratelimit",
     "spring.jpa.hibernate.ddl-auto=create-drop",
     "rate-limit.requests-per-minute=3",
-    "rate-limit.requests-per-hour=10"
+    "rate-limit.requests-per-hour=10",
+    "rate-limit.policies[0].name=user-by-email",
+    "rate-limit.policies[0].path=/api/users/email/*",
+    "rate-limit.policies[0].methods=GET",
+    "rate-limit.policies[0].requests-per-minute=1"
 })
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class RateLimitIntegrationTest {
@@ -78,6 +84,26 @@ class RateLimitIntegrationTest {
                 .andExpect(jsonPath("$.status").value(429));
     }
 
+    @Test
+    void shouldApplyEndpointPolicyToEncodedPath() throws Exception {
+        mockMvc.perform(get(URI.create("/api/%75sers/email/joao@example.com")))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-Rate-Limit-Remaining", "0"));
+
+        mockMvc.perform(get("/api/users/email/joao@example.com"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void shouldApplyEndpointPolicyToPathWithMatrixParameters() throws Exception {
+        mockMvc.perform(get(URI.create("/api/users;x=1/email/joao@example.com")))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-Rate-Limit-Remaining", "0"));
+
+        mockMvc.perform(get("/api/users/email/joao@example.com"))
+                .andExpect(status().isTooManyRequests());
+    }
+
     @Test
     void shouldIncludeRateLimitHeaders() throws Exception {
         mockMvc.perform(get("/api/users"))
@@ -85,6 +111,17 @@ class RateLimitIntegrationTest {
                 .andExpect(header().exists("X-Rate-Limit-Remaining"));
     }
 
+    @Test
+    void shouldChargeExportAsSeveralRequests() throws Exception {
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-Rate-Limit-Remaining", "2"));
+
+        mockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("X-Rate-Limit-Retry-After"));
+    }
+
     @Test
     void shouldApplyRateLimitToUpdateUserEndpoint() throws Exception {
         CreateUserRequest updateRequest = new CreateUserRequest("João Updated", "joao.updated@example.com");
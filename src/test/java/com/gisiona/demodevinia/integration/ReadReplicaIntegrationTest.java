@@ -0,0 +1,115 @@
+package com.gisiona.demodevinia.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gisiona.demodevinia.infrastructure.adapter.web.dto.CreateUserRequest;
+import com.gisiona.demodevinia.infrastructure.datasource.ReplicaLagMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:replica-it-primary",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "read-replica.enabled=true",
+    "read-replica.url=jdbc:h2:mem:replica-it-replica;DB_CLOSE_DELAY=-1",
+    "read-replica.username=sa",
+    "read-replica.password=",
+    "read-replica.driver-class-name=org.h2.Driver",
+    "read-replica.lag-check-interval-millis=3600000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReadReplicaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP NOT NULL, version BIGINT NOT NULL)");
+        replica.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+    }
+
+    @Test
+    void shouldServeReadsFromFreshReplicaAndWritesFromPrimary() throws Exception {
+        mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUserRequest("João Silva", "joao@example.com"))))
+                .andExpect(status().isCreated());
+        replicateWithStaleName();
+
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Nome na réplica"));
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenReplicaHasNoFreshHeartbeat() throws Exception {
+        mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUserRequest("João Silva", "joao@example.com"))))
+                .andExpect(status().isCreated());
+        replicateWithStaleName();
+        replica.update("DELETE FROM replica_heartbeat");
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("João Silva"));
+    }
+
+    private void replicateWithStaleName() {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        replicaLagMonitor.check();
+        primary.query("SELECT id, email, version FROM users", rs -> {
+            replica.update("INSERT INTO users (id, name, email, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?)",
+                    rs.getLong(1), "Nome na réplica", rs.getString(2), LocalDateTime.now(), LocalDateTime.now(), rs.getLong(3));
+        });
+        replica.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)",
+                primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class));
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+    }
+}
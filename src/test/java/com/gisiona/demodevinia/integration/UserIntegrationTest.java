@@ -1,5 +1,6 @@
 package com.gisiona.demodevinia.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gisiona.demodevinia.infrastructure.adapter.web.dto.CreateUserRequest;
 import com.gisiona.demodevinia.infrastructure.adapter.web.dto.UpdateUserRequest;
@@ -9,11 +10,15 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +38,9 @@ class UserIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void shouldCreateAndRetrieveUserSuccessfully() throws Exception {
         CreateUserRequest createRequest = new CreateUserRequest("João Silva", "joao@example.com");
@@ -56,6 +64,34 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.email").value("joao@example.com"));
     }
 
+    @Test
+    void shouldListUsersPageByPage() throws Exception {
+        List<CreateUserRequest> requests = List.of(
+                new CreateUserRequest("Ana", "ana@example.com"),
+                new CreateUserRequest("Bruno", "bruno@example.com"),
+                new CreateUserRequest("Carla", "carla@example.com"));
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk());
+
+        MvcResult firstPage = mockMvc.perform(get("/api/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Ana"))
+                .andExpect(jsonPath("$[0].createdAt").exists())
+                .andExpect(jsonPath("$[0].version").value(0))
+                .andExpect(jsonPath("$[1].email").value("bruno@example.com"))
+                .andReturn();
+
+        mockMvc.perform(get("/api/users").param("limit", "2")
+                        .param("after", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Carla"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
     @Test
     void shouldNotCreateUserWithDuplicateEmail() throws Exception {
         CreateUserRequest createRequest = new CreateUserRequest("João Silva", "joao@example.com");
@@ -72,6 +108,76 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Email já está em uso: joao@example.com"));
     }
 
+    @Test
+    void shouldCreateUsersInBatch() throws Exception {
+        mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUserRequest("Existente", "existente@example.com"))))
+                .andExpect(status().isCreated());
+
+        List<CreateUserRequest> requests = List.of(
+                new CreateUserRequest("João Silva", "joao@example.com"),
+                new CreateUserRequest("Duplicado", "existente@example.com"),
+                new CreateUserRequest("", "invalido@example.com"),
+                new CreateUserRequest("Maria Santos", "maria@example.com"));
+
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].user.id").exists())
+                .andExpect(jsonPath("$[1].status").value("DUPLICATE_EMAIL"))
+                .andExpect(jsonPath("$[2].status").value("INVALID"))
+                .andExpect(jsonPath("$[3].status").value("CREATED"));
+
+        mockMvc.perform(get("/api/users/email/{email}", "maria@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Maria Santos"));
+    }
+
+    @Test
+    void shouldReportDuplicateForEmailCreatedOnAnotherNode() throws Exception {
+        // Inserted directly, as another node would.
+        jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, updated_at, version) "
+                + "VALUES (999, 'Outro nó', 'outro.no@example.com', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)");
+
+        List<CreateUserRequest> requests = List.of(
+                new CreateUserRequest("João Silva", "joao@example.com"),
+                new CreateUserRequest("Duplicado", "outro.no@example.com"));
+
+        mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("DUPLICATE_EMAIL"))
+                .andExpect(jsonPath("$[1].message").value("Email já está em uso: outro.no@example.com"));
+
+        mockMvc.perform(get("/api/users/email/{email}", "joao@example.com"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldAssignConsecutiveIdsFromPooledBlock() throws Exception {
+        List<CreateUserRequest> requests = List.of(
+                new CreateUserRequest("Ana", "ana@example.com"),
+                new CreateUserRequest("Bruno", "bruno@example.com"),
+                new CreateUserRequest("Carla", "carla@example.com"));
+
+        MvcResult result = mockMvc.perform(post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode results = objectMapper.readTree(result.getResponse().getContentAsString());
+        long firstId = results.get(0).get("user").get("id").asLong();
+        assertEquals(firstId + 1, results.get(1).get("user").get("id").asLong());
+        assertEquals(firstId + 2, results.get(2).get("user").get("id").asLong());
+    }
+
     @Test
     void shouldUpdateUserSuccessfully() throws Exception {
         CreateUserRequest createRequest = new CreateUserRequest("João Silva", "joao@example.com");
@@ -96,6 +202,52 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.email").value("joao.updated@example.com"));
     }
 
+    @Test
+    void shouldRejectUpdateWithStaleVersion() throws Exception {
+        MvcResult createResult = mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUserRequest("João Silva", "joao@example.com"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn();
+        Long userId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        UpdateUserRequest updateRequest = new UpdateUserRequest("João Atualizado", "joao@example.com");
+        updateRequest.setVersion(0L);
+
+        mockMvc.perform(put("/api/users/{id}", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("João Atualizado"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(put("/api/users/{id}", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldNotUpdateUserToEmailInUse() throws Exception {
+        mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUserRequest("Maria", "maria@example.com"))))
+                .andExpect(status().isCreated());
+        MvcResult createResult = mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateUserRequest("João", "joao@example.com"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long userId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(put("/api/users/{id}", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateUserRequest("João", "maria@example.com"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Email já está em uso: maria@example.com"));
+    }
+
     @Test
     void shouldDeleteUserSuccessfully() throws Exception {
         CreateUserRequest createRequest = new CreateUserRequest("João Silva", "joao@example.com");
@@ -117,6 +269,13 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Usuário não encontrado com ID: " + userId));
     }
 
+    @Test
+    void shouldReturnBadRequestWhenDeletingNonExistentUser() throws Exception {
+        mockMvc.perform(delete("/api/users/{id}", 999L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Usuário não encontrado com ID: 999"));
+    }
+
     @Test
     void shouldGetAllUsersSuccessfully() throws Exception {
         CreateUserRequest user1 = new CreateUserRequest("João Silva", "joao@example.com");
@@ -140,6 +299,60 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$[1].name").value("Maria Santos"));
     }
 
+    @Test
+    void shouldPageThroughUsersWithCursor() throws Exception {
+        for (String name : new String[] {"Ana", "Bruno", "Carla"}) {
+            CreateUserRequest request = new CreateUserRequest(name, name.toLowerCase() + "@example.com");
+            mockMvc.perform(post("/api/users")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/api/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Ana"))
+                .andExpect(jsonPath("$[1].name").value("Bruno"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/users").param("after", cursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Carla"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/users").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportAllUsersAsNdjson() throws Exception {
+        for (String name : new String[] {"Ana", "Bruno", "Carla"}) {
+            CreateUserRequest request = new CreateUserRequest(name, name.toLowerCase() + "@example.com");
+            mockMvc.perform(post("/api/users")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("Ana", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("Carla", objectMapper.readTree(lines[2]).get("name").asText());
+    }
+
     @Test
     void shouldGetUserByEmailSuccessfully() throws Exception {
         CreateUserRequest createRequest = new CreateUserRequest("João Silva", "joao@example.com");